@@ -0,0 +1,96 @@
+package com.github.omkelderman.osudbparser.benchmarks;
+
+import com.github.omkelderman.osudbparser.OsuBeatmapInfo;
+import com.github.omkelderman.osudbparser.OsuDbGenerator;
+import com.github.omkelderman.osudbparser.OsuDbReader;
+import com.github.omkelderman.osudbparser.io.OsuDbByteBufferInput;
+import com.github.omkelderman.osudbparser.io.OsuDbDataInput;
+import com.github.omkelderman.osudbparser.io.OsuDbInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding the length-prefixed beatmaps of a synthetic osu!.db file (see {@link OsuDbGenerator}) one at a time, to
+ * measure what reading a beatmap allocates besides the beatmap itself. Run with <code>-prof gc</code>.
+ * <p>
+ * {@link #perRecordInput(Blackhole)} reads every beatmap the way it used to be done: copy the record into a new
+ * array and decode it from a new {@link OsuDbInputStream}. {@link #noLengthPrefix(Blackhole)} decodes the same
+ * beatmaps from a file without length-prefix, so it allocates only the beatmaps. The length-prefixed benchmarks
+ * ({@link #sectionInputStream(Blackhole)} and {@link #sectionByteBuffer(Blackhole)}) are expected to have the same
+ * <code>gc.alloc.rate.norm</code> as {@link #noLengthPrefix(Blackhole)}, while {@link #perRecordInput(Blackhole)}
+ * allocates the 8KB buffer of the stream plus a copy of the record per beatmap more. With the default generator
+ * settings that is about 2.1KB per beatmap for the section inputs and without length-prefix, against about 11.8KB per
+ * beatmap for a new input per record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeatmapRecordBenchmark {
+    private static final long LENGTH_PREFIX_VERSION = 20160411;
+    private static final long NO_LENGTH_PREFIX_VERSION = 20160226;
+
+    @Param({"1000", "10000"})
+    private int beatmapCount;
+
+    private byte[] file;
+    private byte[] fileWithoutLengths;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = new OsuDbGenerator().seed(42).beatmapCount(beatmapCount).osuVersion(LENGTH_PREFIX_VERSION).generate();
+        fileWithoutLengths = new OsuDbGenerator().seed(42).beatmapCount(beatmapCount).osuVersion(NO_LENGTH_PREFIX_VERSION).generate();
+    }
+
+    @Benchmark
+    public void perRecordInput(Blackhole blackhole) throws IOException {
+        OsuDbInputStream iStream = new OsuDbInputStream(new ByteArrayInputStream(file));
+        int count = OsuDbReader.open(iStream).getBeatmapCount();
+        for (int i = 0; i < count; ++i) {
+            byte[] record = new byte[(int) iStream.readUInt32()];
+            iStream.readFully(record);
+            OsuDbInputStream recordStream = new OsuDbInputStream(new ByteArrayInputStream(record));
+            // the record has no length-prefix of its own
+            blackhole.consume(OsuBeatmapInfo.parse(recordStream, NO_LENGTH_PREFIX_VERSION));
+        }
+    }
+
+    @Benchmark
+    public void sectionInputStream(Blackhole blackhole) throws IOException {
+        parseAll(new OsuDbInputStream(new ByteArrayInputStream(file)), LENGTH_PREFIX_VERSION, blackhole);
+    }
+
+    @Benchmark
+    public void sectionByteBuffer(Blackhole blackhole) throws IOException {
+        parseAll(new OsuDbByteBufferInput(ByteBuffer.wrap(file)), LENGTH_PREFIX_VERSION, blackhole);
+    }
+
+    @Benchmark
+    public void noLengthPrefix(Blackhole blackhole) throws IOException {
+        parseAll(new OsuDbInputStream(new ByteArrayInputStream(fileWithoutLengths)), NO_LENGTH_PREFIX_VERSION, blackhole);
+    }
+
+    private static void parseAll(OsuDbDataInput iStream, long osuVersion, Blackhole blackhole) throws IOException {
+        int count = OsuDbReader.open(iStream).getBeatmapCount();
+        for (int i = 0; i < count; ++i) {
+            blackhole.consume(OsuBeatmapInfo.parse(iStream, osuVersion));
+        }
+    }
+}
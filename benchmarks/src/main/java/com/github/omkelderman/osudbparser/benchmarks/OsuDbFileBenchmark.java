@@ -0,0 +1,76 @@
+package com.github.omkelderman.osudbparser.benchmarks;
+
+import com.github.omkelderman.osudbparser.OsuDbFile;
+import com.github.omkelderman.osudbparser.OsuDbGenerator;
+import com.github.omkelderman.osudbparser.OsuDbReader;
+import com.github.omkelderman.osudbparser.io.OsuDbInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a whole synthetic osu!.db file (see {@link OsuDbGenerator}), from the different inputs. Run with
+ * <code>-prof gc</code> to compare the allocation rate per parse, for example of the old format (a record at a time)
+ * against the new format (records bounded by their length). Larger files can be tested with for example
+ * <code>-p beatmapCount=1000000</code>, given enough heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OsuDbFileBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int beatmapCount;
+
+    @Param({"20160226", "20160411"})
+    private long osuVersion;
+
+    private byte[] file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = new OsuDbGenerator().seed(42).beatmapCount(beatmapCount).osuVersion(osuVersion).generate();
+    }
+
+    @Benchmark
+    public OsuDbFile parseInputStream() throws IOException {
+        return OsuDbFile.parse(new OsuDbInputStream(new ByteArrayInputStream(file)));
+    }
+
+    @Benchmark
+    public OsuDbFile parseByteBuffer() throws IOException {
+        return OsuDbFile.parse(ByteBuffer.wrap(file));
+    }
+
+    @Benchmark
+    public OsuDbFile parseChannel() throws IOException {
+        return OsuDbFile.parse(Channels.newChannel(new ByteArrayInputStream(file)));
+    }
+
+    @Benchmark
+    public void streamReader(Blackhole blackhole) throws IOException {
+        // one beatmap at a time, nothing is kept
+        try (OsuDbReader reader = OsuDbReader.open(ByteBuffer.wrap(file))) {
+            while (reader.hasNextBeatmap()) {
+                blackhole.consume(reader.nextBeatmap());
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.omkelderman.osudbparser.benchmarks;
+
+import com.github.omkelderman.osudbparser.io.OsuDbInputStream;
+import com.github.omkelderman.osudbparser.io.OsuDbOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The primitive reads of {@link OsuDbInputStream}. Every invocation reads {@link #COUNT} values from a new stream, the
+ * score is the time per value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OsuDbInputStreamBenchmark {
+    private static final int COUNT = 10000;
+    private static final String[] STRINGS = {"DragonForce", "Through the Fire and Flames", "Insane", "audio.mp3", "ドラゴンフォース", ""};
+
+    private byte[] uInt32s;
+    private byte[] doubles;
+    private byte[] ulebs;
+    private byte[] strings;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        uInt32s = write(out -> out.writeUInt32(random.nextInt() & 0xFFFFFFFFL));
+        doubles = write(out -> out.writeDouble(random.nextDouble()));
+        // mostly single byte lengths, like the lengths of strings
+        ulebs = write(out -> out.writeULEB128(random.nextInt(8) == 0 ? random.nextInt(100000) : random.nextInt(128)));
+        strings = write(out -> out.writeString(STRINGS[random.nextInt(STRINGS.length)]));
+    }
+
+    private static byte[] write(Writer writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OsuDbOutputStream out = new OsuDbOutputStream(bytes)) {
+            for (int i = 0; i < COUNT; ++i) {
+                writer.write(out);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void readUInt32(Blackhole blackhole) throws IOException {
+        OsuDbInputStream in = new OsuDbInputStream(new ByteArrayInputStream(uInt32s));
+        for (int i = 0; i < COUNT; ++i) {
+            blackhole.consume(in.readUInt32());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void readDouble(Blackhole blackhole) throws IOException {
+        OsuDbInputStream in = new OsuDbInputStream(new ByteArrayInputStream(doubles));
+        for (int i = 0; i < COUNT; ++i) {
+            blackhole.consume(in.readDouble());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void readULEB128asInt(Blackhole blackhole) throws IOException {
+        OsuDbInputStream in = new OsuDbInputStream(new ByteArrayInputStream(ulebs));
+        for (int i = 0; i < COUNT; ++i) {
+            blackhole.consume(in.readULEB128asInt());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void readString(Blackhole blackhole) throws IOException {
+        OsuDbInputStream in = new OsuDbInputStream(new ByteArrayInputStream(strings));
+        for (int i = 0; i < COUNT; ++i) {
+            blackhole.consume(in.readString());
+        }
+    }
+
+    private interface Writer {
+        void write(OsuDbOutputStream out) throws IOException;
+    }
+}
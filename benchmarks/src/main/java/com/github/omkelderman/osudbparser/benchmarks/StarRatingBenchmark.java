@@ -0,0 +1,89 @@
+package com.github.omkelderman.osudbparser.benchmarks;
+
+import com.github.omkelderman.osudbparser.StarRating;
+import com.github.omkelderman.osudbparser.io.OsuDbByteBufferInput;
+import com.github.omkelderman.osudbparser.io.OsuDbOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking up star ratings, and decoding them (run with <code>-prof gc</code> for the allocations per StarRating)
+ * <p>
+ * {@link #parseAsMap()} decodes into the <code>HashMap&lt;Long, Double&gt;</code> that StarRating used to have. A
+ * decoded star rating keeps everything it allocates, so the difference in <code>gc.alloc.rate.norm</code> between
+ * {@link #parse()} and {@link #parseAsMap()} is the memory saved per star rating. Times four game modes and 100k that
+ * is the memory saved per 100k beatmaps: with compressed references the map takes about 720 bytes (map, table, 9 nodes,
+ * boxed keys and values) against about 120 bytes for StarRating and its <code>double[]</code>, so roughly 240MB per
+ * 100k beatmaps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StarRatingBenchmark {
+    private static final long[] MODS = {0, 64, 256, 2, 2 | 64, 2 | 256, 16, 16 | 64, 16 | 256};
+    // hidden and flashlight don't change the rating, but have to be masked out
+    private static final long HIDDEN_FLASHLIGHT = 8 | 1024;
+
+    private byte[] encoded;
+    private StarRating starRating;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OsuDbOutputStream out = new OsuDbOutputStream(bytes)) {
+            out.writeUInt32(MODS.length);
+            for (int i = 0; i < MODS.length; ++i) {
+                out.writeUInt8(0x08);
+                out.writeUInt32(MODS[i]);
+                out.writeUInt8(0x0D);
+                out.writeDouble(2 + i * 0.3);
+            }
+        }
+        encoded = bytes.toByteArray();
+        starRating = parse();
+    }
+
+    @Benchmark
+    public double forMods() {
+        next = (next + 1) % MODS.length;
+        return starRating.forMods(MODS[next] | HIDDEN_FLASHLIGHT);
+    }
+
+    @Benchmark
+    public StarRating parse() throws IOException {
+        return StarRating.parse(new OsuDbByteBufferInput(ByteBuffer.wrap(encoded)));
+    }
+
+    @Benchmark
+    public Map<Long, Double> parseAsMap() throws IOException {
+        OsuDbByteBufferInput iStream = new OsuDbByteBufferInput(ByteBuffer.wrap(encoded));
+        long amount = iStream.readUInt32();
+        Map<Long, Double> ratings = new HashMap<>();
+        for (long i = 0; i < amount; ++i) {
+            iStream.readExpectedUInt8(0x08);
+            long modCombo = iStream.readUInt32();
+            iStream.readExpectedUInt8(0x0D);
+            ratings.put(modCombo, iStream.readDouble());
+        }
+        return ratings;
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.omkelderman.osudbparser.benchmarks;
+
+import com.github.omkelderman.osudbparser.TimingPoint;
+import com.github.omkelderman.osudbparser.TimingPointTable;
+import com.github.omkelderman.osudbparser.TimingPointTimeline;
+import com.github.omkelderman.osudbparser.io.OsuDbInputStream;
+import com.github.omkelderman.osudbparser.io.OsuDbOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The bpm calculations over the timing points of a single beatmap, as objects and as {@link TimingPointTable}, and the
+ * lookups of {@link TimingPointTimeline}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimingPointBenchmark {
+    @Param({"10", "100", "1000"})
+    private int timingPointCount;
+
+    private TimingPoint[] timingPoints;
+    private TimingPointTable table;
+    private TimingPointTimeline timeline;
+    private double time;
+    private long totalTime;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        totalTime = 1000L * timingPointCount;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OsuDbOutputStream out = new OsuDbOutputStream(bytes)) {
+            out.writeUInt32(timingPointCount);
+            for (int i = 0; i < timingPointCount; ++i) {
+                // a few different bpms, with inherited points in between
+                boolean uninherited = i == 0 || random.nextInt(3) == 0;
+                out.writeDouble(uninherited ? 60000.0 / (120 + 10 * random.nextInt(8)) : -100);
+                out.writeDouble(i * 1000);
+                out.writeBoolean(uninherited);
+            }
+        }
+        timingPoints = TimingPoint.parseArray(new OsuDbInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        table = TimingPointTable.parse(new OsuDbInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        timeline = TimingPointTimeline.build(table);
+    }
+
+    @Benchmark
+    public double calcMainBpm() {
+        return TimingPoint.calcMainBpm(timingPoints, totalTime);
+    }
+
+    @Benchmark
+    public double calcBpmMinMax() {
+        return TimingPoint.calcBpmMin(timingPoints) + TimingPoint.calcBpmMax(timingPoints);
+    }
+
+    @Benchmark
+    public double calcMainBpmTable() {
+        return table.calcMainBpm(totalTime);
+    }
+
+    @Benchmark
+    public double calcBpmMinMaxTable() {
+        return table.calcBpmMin() + table.calcBpmMax();
+    }
+
+    @Benchmark
+    public double timelineBpmAndBeatAt() {
+        // walk through the beatmap like a visualizer does, a frame at a time
+        time = time >= totalTime ? 0 : time + 16.7;
+        return timeline.bpmAt(time) + timeline.beatAt(time);
+    }
+}
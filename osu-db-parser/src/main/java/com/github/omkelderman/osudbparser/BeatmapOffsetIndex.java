@@ -0,0 +1,164 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbByteBufferInput;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Where each beatmap starts in an osu!.db file that is completely in memory (or memory-mapped), so any beatmap can be
+ * decoded on its own without decoding the ones before it.
+ */
+final class BeatmapOffsetIndex {
+    /**
+     * Amount of beatmaps decoded by a single task in {@link #parseAll(Executor, int)}, big enough to make the overhead
+     * of a task negligible, small enough to keep all threads busy until the end.
+     */
+    static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private final ByteBuffer buffer;
+    private final long osuVersion;
+
+    /**
+     * Absolute start position of every beatmap, plus the end position of the last beatmap as extra last element
+     */
+    private final int[] offsets;
+
+    private BeatmapOffsetIndex(ByteBuffer buffer, long osuVersion, int[] offsets) {
+        this.buffer = buffer;
+        this.osuVersion = osuVersion;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Build the index by skipping over all the beatmaps, the beatmaps are not decoded.
+     *
+     * @param buffer       The complete file
+     * @param iStream      Input reading from <code>buffer</code>, positioned at the first beatmap. Will be positioned
+     *                     right after the last beatmap once this method returns.
+     * @param beatmapCount Amount of beatmaps in the file
+     * @param osuVersion   Version of the osu!.db file
+     * @return The index
+     * @throws IOException on error
+     */
+    static BeatmapOffsetIndex build(ByteBuffer buffer, OsuDbByteBufferInput iStream, int beatmapCount, long osuVersion) throws IOException {
+        int[] offsets = new int[beatmapCount + 1];
+        for (int i = 0; i < beatmapCount; ++i) {
+            offsets[i] = iStream.position();
+            OsuBeatmapInfo.skip(iStream, osuVersion);
+        }
+        offsets[beatmapCount] = iStream.position();
+        return new BeatmapOffsetIndex(buffer, osuVersion, offsets);
+    }
+
+    int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @param index Index of the beatmap
+     * @return Absolute start position of the beatmap, including the length-prefix if present
+     */
+    int start(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * @param index Index of the beatmap
+     * @return Absolute end position (exclusive) of the beatmap
+     */
+    int end(int index) {
+        return offsets[index + 1];
+    }
+
+    /**
+     * Fingerprint of the bytes of a beatmap, to find out if a beatmap has changed without decoding it. The fingerprint
+     * is the MD5 of the bytes, unlike a checksum (like CRC32) it is practically impossible for changed bytes to keep
+     * the same MD5.
+     *
+     * @param index        Index of the beatmap
+     * @param md5          MD5 digest to use, reset once this method returns
+     * @param fingerprints Gets the 128 bits of the MD5 as two longs, at <code>2 * index</code> and
+     *                     <code>2 * index + 1</code>
+     */
+    void fingerprint(int index, MessageDigest md5, long[] fingerprints) {
+        ByteBuffer record = buffer.duplicate();
+        record.limit(end(index)).position(start(index));
+        md5.update(record);
+        ByteBuffer digest = ByteBuffer.wrap(md5.digest());
+        fingerprints[2 * index] = digest.getLong();
+        fingerprints[2 * index + 1] = digest.getLong();
+    }
+
+    /**
+     * Get an input positioned at the start of a beatmap. Every call gives a new input, so this is safe to use from
+     * multiple threads.
+     *
+     * @param index Index of the beatmap
+     * @return Input positioned at the start of the beatmap
+     */
+    OsuDbByteBufferInput inputAt(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size());
+        }
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(offsets[index]);
+        return new OsuDbByteBufferInput(duplicate);
+    }
+
+    /**
+     * Decode a single beatmap
+     *
+     * @param index Index of the beatmap
+     * @return The decoded beatmap
+     * @throws IOException on error
+     */
+    OsuBeatmapInfo parse(int index) throws IOException {
+        return OsuBeatmapInfo.parse(inputAt(index), osuVersion);
+    }
+
+    /**
+     * Decode all beatmaps, in chunks of <code>chunkSize</code> beatmaps that are decoded concurrently on
+     * <code>executor</code>. The order of the beatmaps is the same as in the file.
+     *
+     * @param executor  Executor to decode the chunks on
+     * @param chunkSize Amount of beatmaps per chunk
+     * @return All beatmaps
+     * @throws IOException on error
+     */
+    OsuBeatmapInfo[] parseAll(Executor executor, int chunkSize) throws IOException {
+        OsuBeatmapInfo[] beatmaps = new OsuBeatmapInfo[size()];
+        int chunkCount = (beatmaps.length + chunkSize - 1) / chunkSize;
+        CompletableFuture<?>[] chunks = new CompletableFuture<?>[chunkCount];
+        for (int chunk = 0; chunk < chunkCount; ++chunk) {
+            int from = chunk * chunkSize;
+            int to = Math.min(from + chunkSize, beatmaps.length);
+            chunks[chunk] = CompletableFuture.runAsync(() -> {
+                try {
+                    // each chunk is decoded sequentially, with its own input
+                    OsuDbByteBufferInput iStream = inputAt(from);
+                    for (int i = from; i < to; ++i) {
+                        beatmaps[i] = OsuBeatmapInfo.parse(iStream, osuVersion);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor);
+        }
+
+        try {
+            CompletableFuture.allOf(chunks).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+        return beatmaps;
+    }
+}
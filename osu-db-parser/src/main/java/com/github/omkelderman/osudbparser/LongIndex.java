@@ -0,0 +1,90 @@
+package com.github.omkelderman.osudbparser;
+
+/**
+ * Lookup of beatmaps by a <code>long</code> key (like the beatmap id): an open-addressing hash table over primitive
+ * keys, where every key can map to multiple beatmaps.
+ */
+final class LongIndex {
+    private static final int[] NONE = new int[0];
+
+    private final long[] keys;
+
+    // per slot: index of the first beatmap with that key + 1, 0 for an empty slot
+    private final int[] firsts;
+
+    // per slot: amount of beatmaps with that key
+    private final int[] counts;
+
+    // per beatmap: index of the next beatmap with the same key + 1, 0 for the last one
+    private final int[] nexts;
+
+    private LongIndex(int capacity, int size) {
+        keys = new long[capacity];
+        firsts = new int[capacity];
+        counts = new int[capacity];
+        nexts = new int[size];
+    }
+
+    /**
+     * Build the index, beatmaps keep the order of <code>keys</code> in lookup results.
+     *
+     * @param keys       The key of every beatmap
+     * @param ignoredKey Key that is left out of the index (e.g. the <code>0</code> id of unsubmitted beatmaps)
+     * @return The index
+     */
+    static LongIndex build(long[] keys, long ignoredKey) {
+        // at most half full, so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(keys.length, 1) * 2 - 1) << 1;
+        LongIndex index = new LongIndex(capacity, keys.length);
+        // walk backwards, so every beatmap can be put in front of the beatmaps after it
+        for (int i = keys.length - 1; i >= 0; --i) {
+            if (keys[i] != ignoredKey) {
+                index.add(keys[i], i);
+            }
+        }
+        return index;
+    }
+
+    private void add(long key, int beatmapIndex) {
+        int slot = find(key);
+        keys[slot] = key;
+        nexts[beatmapIndex] = firsts[slot];
+        firsts[slot] = beatmapIndex + 1;
+        ++counts[slot];
+    }
+
+    private int find(long key) {
+        long bits = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (bits >>> 32) & (keys.length - 1);
+        while (firsts[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return slot;
+    }
+
+    /**
+     * @param key The key
+     * @return Index of the first beatmap with this key, or <code>-1</code> if there is none
+     */
+    int first(long key) {
+        return firsts[find(key)] - 1;
+    }
+
+    /**
+     * @param key The key
+     * @return Indexes of all beatmaps with this key, in file order
+     */
+    int[] all(long key) {
+        int slot = find(key);
+        if (firsts[slot] == 0) {
+            return NONE;
+        }
+        int[] result = new int[counts[slot]];
+        int next = firsts[slot];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = next - 1;
+            next = nexts[next - 1];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbDataInput;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * MD5 hash of a beatmap as two <code>long</code>s, instead of the 32 character hex string it is stored as in the file.
+ * Replays and scores refer to beatmaps by this hash.
+ */
+@Getter
+@EqualsAndHashCode
+public final class Md5Hash {
+    private static final int HEX_LENGTH = 32;
+
+    /**
+     * First 8 bytes of the hash (the first 16 hex characters)
+     */
+    private final long high;
+
+    /**
+     * Last 8 bytes of the hash (the last 16 hex characters)
+     */
+    private final long low;
+
+    public Md5Hash(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Parse a hash from its hex representation, upper or lower case
+     *
+     * @param hex The 32 character hex string
+     * @return The hash
+     * @throws IllegalArgumentException if <code>hex</code> is not a valid MD5 hash
+     */
+    public static Md5Hash parse(String hex) {
+        Md5Hash hash = tryParse(hex);
+        if (hash == null) {
+            throw new IllegalArgumentException("not a MD5 hash: " + hex);
+        }
+        return hash;
+    }
+
+    /**
+     * @return The hash, or <code>null</code> if <code>hex</code> is <code>null</code> or not a valid MD5 hash
+     */
+    static Md5Hash tryParse(String hex) {
+        if (hex == null || hex.length() != HEX_LENGTH) {
+            return null;
+        }
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < HEX_LENGTH; ++i) {
+            int nibble = nibble(hex.charAt(i));
+            if (nibble < 0) {
+                return null;
+            }
+            if (i < HEX_LENGTH / 2) {
+                high = (high << 4) | nibble;
+            } else {
+                low = (low << 4) | nibble;
+            }
+        }
+        return new Md5Hash(high, low);
+    }
+
+    /**
+     * Read the hash straight from the string in the file, without creating the string first
+     *
+     * @param iStream The input, positioned at the string
+     * @return The hash, or <code>null</code> if the string is <code>null</code> or not a valid MD5 hash
+     * @throws IOException on error
+     */
+    static Md5Hash read(OsuDbDataInput iStream) throws IOException {
+        int b = iStream.readUInt8();
+        if (b == 0) {
+            return null;
+        }
+        if (b != 0x0B) {
+            throw new IOException("expected byte 0x0B");
+        }
+        int length = iStream.readULEB128asInt();
+        if (length != HEX_LENGTH) {
+            iStream.skipFully(length);
+            return null;
+        }
+        // 32 ASCII characters are exactly four little endian longs, each of them holds 8 characters
+        long first = hexToInt(iStream.readUInt64());
+        long second = hexToInt(iStream.readUInt64());
+        long third = hexToInt(iStream.readUInt64());
+        long fourth = hexToInt(iStream.readUInt64());
+        if (first < 0 || second < 0 || third < 0 || fourth < 0) {
+            return null;
+        }
+        return new Md5Hash((first << 32) | second, (third << 32) | fourth);
+    }
+
+    /**
+     * @param chars 8 characters, the first one in the lowest byte
+     * @return The 32 bit value of the 8 hex characters, or <code>-1</code> if one of them is not a hex character
+     */
+    private static long hexToInt(long chars) {
+        long value = 0;
+        for (int i = 0; i < 8; ++i) {
+            int nibble = nibble((char) ((chars >>> (i * 8)) & 0xFF));
+            if (nibble < 0) {
+                return -1;
+            }
+            value = (value << 4) | nibble;
+        }
+        return value;
+    }
+
+    private static int nibble(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * @return The hash as 32 character lower case hex string, like it is stored in the file
+     */
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.omkelderman.osudbparser;
+
+/**
+ * Lookup of beatmaps by their {@link Md5Hash}: an open-addressing hash table over the two halves of the hashes, so a
+ * lookup does not allocate anything and does not compare strings.
+ */
+final class Md5Index {
+    private final long[] highs;
+    private final long[] lows;
+
+    // index of the beatmap + 1, 0 for an empty slot
+    private final int[] slots;
+
+    private Md5Index(int capacity) {
+        highs = new long[capacity];
+        lows = new long[capacity];
+        slots = new int[capacity];
+    }
+
+    /**
+     * Build the index. Beatmaps without a (valid) hash are left out, when multiple beatmaps have the same hash the
+     * first one is used.
+     *
+     * @param beatmaps The beatmaps
+     * @return The index
+     */
+    static Md5Index build(OsuBeatmapInfo[] beatmaps) {
+        // at most half full, so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(beatmaps.length, 1) * 2 - 1) << 1;
+        Md5Index index = new Md5Index(capacity);
+        for (int i = 0; i < beatmaps.length; ++i) {
+            Md5Hash hash = beatmaps[i].getMd5Hash();
+            if (hash != null) {
+                index.add(hash.getHigh(), hash.getLow(), i);
+            }
+        }
+        return index;
+    }
+
+    private void add(long high, long low, int beatmapIndex) {
+        int slot = slot(high, low);
+        while (slots[slot] != 0) {
+            if (highs[slot] == high && lows[slot] == low) {
+                return;
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        highs[slot] = high;
+        lows[slot] = low;
+        slots[slot] = beatmapIndex + 1;
+    }
+
+    /**
+     * @param high First half of the hash, see {@link Md5Hash#getHigh()}
+     * @param low  Second half of the hash, see {@link Md5Hash#getLow()}
+     * @return Index of the beatmap with this hash, or <code>-1</code> if there is none
+     */
+    int indexOf(long high, long low) {
+        int slot = slot(high, low);
+        while (slots[slot] != 0) {
+            if (highs[slot] == high && lows[slot] == low) {
+                return slots[slot] - 1;
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        return -1;
+    }
+
+    private int slot(long high, long low) {
+        // MD5 is uniformly distributed already, no need for a fancy hash function
+        long bits = high ^ low;
+        return (int) (bits ^ (bits >>> 32)) & (slots.length - 1);
+    }
+}
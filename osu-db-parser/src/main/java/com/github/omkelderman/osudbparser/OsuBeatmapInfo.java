@@ -0,0 +1,1372 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbByteBufferInput;
+import com.github.omkelderman.osudbparser.io.OsuDbDataInput;
+import com.github.omkelderman.osudbparser.io.OsuDbOutputStream;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+@Getter
+public class OsuBeatmapInfo {
+    // special values for Field.encodedSize
+    private static final int NOT_ENCODED = 0;
+    private static final int ENCODED_STRING = -1;
+    private static final int ENCODED_STAR_RATING = -2;
+    private static final int ENCODED_TIMING_POINTS = -3;
+
+    // bits of flags, instead of a boolean (and a padded byte) each
+    private static final int UNPLAYED = 1;
+    private static final int OSZ2 = 1 << 1;
+    private static final int IGNORE_BEATMAP_SOUNDS = 1 << 2;
+    private static final int IGNORE_BEATMAP_SKIN = 1 << 3;
+    private static final int DISABLE_STORYBOARD = 1 << 4;
+    private static final int DISABLE_VIDEO = 1 << 5;
+    private static final int VISUAL_OVERRIDE = 1 << 6;
+    // if all stored fields are decoded, which is needed to write the beatmap
+    private static final int COMPLETE = 1 << 7;
+    // if one of the setters has been called since the beatmap was decoded
+    private static final int MODIFIED = 1 << 8;
+    // if rankedStatusRaw, gameModeRaw and the grades in gradesRaw are decoded, otherwise their getters return null
+    private static final int HAS_RANKED_STATUS = 1 << 9;
+    private static final int HAS_GAME_MODE = 1 << 10;
+    // one bit per game mode, standard first
+    private static final int HAS_GRADE = 1 << 11;
+    private static final int VARIABLE_BPM = 1 << 15;
+
+    /**
+     * Artist name
+     */
+    private String artistName;
+
+    /**
+     * Artist name, in Unicode
+     */
+    private String artistNameUnicode;
+
+    /**
+     * Song title
+     */
+    private String songTitle;
+
+    /**
+     * Song title, in Unicode
+     */
+    private String songTitleUnicode;
+
+    /**
+     * Creator name
+     */
+    private String creatorName;
+
+    /**
+     * Difficulty (e.g. Hard, Insane, etc.)
+     */
+    private String difficulty;
+
+    /**
+     * Audio file name
+     */
+    private String audioFileName;
+
+    /**
+     * MD5 hash of the beatmap
+     */
+    private String md5BeatmapHash;
+
+    // only set when the hash is decoded without the string, see Field.MD5_HASH
+    @Getter(AccessLevel.NONE)
+    private Md5Hash md5Hash;
+
+    /**
+     * Name of the .osu file corresponding to this beatmap
+     */
+    private String osuFileName;
+
+    /**
+     * Raw ranked status value.
+     * Use {@link #getRankedStatus()} instead if possible!
+     * <p>
+     * According to wiki: 4 = ranked, 5 = approved, 2 = pending/graveyard
+     * <br>
+     * <i><strike>Someone verify this, I don't trust the wiki page I copied this info from....</strike></i>
+     * <p>
+     * From my own observations: 0 = unkown, 1 = not submitted, 6 = qualified, and the values from the wiki seems to be
+     * correct
+     */
+    @Getter(AccessLevel.NONE)
+    private byte rankedStatusRaw;
+
+    /**
+     * Number of hitcircles
+     */
+    @Getter(AccessLevel.NONE)
+    private char hitcircleCount;
+
+    /**
+     * Number of sliders (note: this will be present in every mode)
+     */
+    @Getter(AccessLevel.NONE)
+    private char sliderCount;
+
+    /**
+     * Number of spinners (note: this will be present in every mode)
+     */
+    @Getter(AccessLevel.NONE)
+    private char spinnerCount;
+
+    /**
+     * Last modification time, Windows ticks.
+     * <p>
+     * <i>I suppose it's this: https://msdn.microsoft.com/library/system.datetime.ticks(v=vs.100).aspx</i>
+     * <p>
+     * <b>NOTE: if this is a negative value, it's an integer overflow....</b>
+     */
+    private long lastModificationTime;
+
+    /**
+     * Approach rate
+     */
+    private float approachRate;
+
+    /**
+     * Circle size
+     */
+    private float circleSize;
+
+    /**
+     * HP drain
+     */
+    private float hpDrain;
+
+    /**
+     * Overall difficulty
+     */
+    private float overallDifficulty;
+
+    /**
+     * Slider velocity
+     */
+    private double sliderVelocity;
+
+    /**
+     * Star rating for osu! standard
+     * <p>
+     * Can be <code>null</code> if the information is not available for this gamemode
+     */
+    private StarRating standardStarRating;
+
+    /**
+     * Star rating for taiko
+     * <p>
+     * Can be <code>null</code> if the information is not available for this gamemode
+     */
+    private StarRating taikoStarRating;
+
+    /**
+     * Star rating for ctb
+     * <p>
+     * Can be <code>null</code> if the information is not available for this gamemode
+     */
+    private StarRating ctbStarRating;
+
+    /**
+     * Star rating for mania
+     * <p>
+     * Can be <code>null</code> if the information is not available for this gamemode
+     */
+    private StarRating maniaStarRating;
+
+    /**
+     * Drain time, in seconds
+     */
+    @Getter(AccessLevel.NONE)
+    private int drainTime;
+
+    /**
+     * Total time, in milliseconds
+     */
+    @Getter(AccessLevel.NONE)
+    private int totalTime;
+
+    /**
+     * Time when the audio preview when hovering over a beatmap in beatmap select starts, in milliseconds.
+     */
+    @Getter(AccessLevel.NONE)
+    private int audioPreviewStartTime;
+
+    /**
+     * Array of timing points
+     * <p>
+     * Only decoded on the first call of {@link #getTimingPoints()}, until then only the raw bytes are kept.
+     */
+    private volatile TimingPoint[] timingPoints;
+
+    // timing points as they are stored in the file, without the count
+    @Getter(AccessLevel.PACKAGE)
+    private byte[] timingPointBytes;
+
+    /**
+     * Beatmap ID
+     */
+    @Getter(AccessLevel.NONE)
+    private int beatmapId;
+
+    /**
+     * Beatmap set ID
+     */
+    @Getter(AccessLevel.NONE)
+    private int beatmapSetId;
+
+    /**
+     * Thread ID
+     * <p>
+     * <i>I have no freakin' clue what this actually is....</i>
+     */
+    @Getter(AccessLevel.NONE)
+    private int threadId;
+
+    // the grades as stored in the file, a byte per game mode (standard in the lowest byte), so values without a Grade
+    // can be written back. The Grade getters decode them on every call.
+    @Getter(AccessLevel.NONE)
+    private int gradesRaw;
+
+    /**
+     * Local beatmap offset
+     */
+    @Getter(AccessLevel.NONE)
+    private char localOffset;
+
+    /**
+     * Stack leniency
+     */
+    private float stackLeniency;
+
+    // see getGameMode()
+    @Getter(AccessLevel.NONE)
+    private byte gameModeRaw;
+
+    /**
+     * Song source
+     */
+    private String source;
+
+    /**
+     * Song tags
+     */
+    private String tags;
+
+    /**
+     * Online offset
+     */
+    @Getter(AccessLevel.NONE)
+    private char onlineOffset;
+
+    /**
+     * Font used for the title of the song
+     */
+    private String font;
+
+    /**
+     * Last time when beatmap was played
+     * <p>
+     * <i>I suppose it's this again: https://msdn.microsoft.com/library/system.datetime.ticks(v=vs.100).aspx</i>
+     * <p>
+     * <b>NOTE: if this is a negative value, it's an integer overflow....</b>
+     */
+    private long lastTimePlayed;
+
+    /**
+     * Folder name of the beatmap, relative to Songs folder
+     */
+    private String folderName;
+
+    /**
+     * Last time when beatmap was checked against osu! repository
+     * <p>
+     * <i>I suppose it's this again: https://msdn.microsoft.com/library/system.datetime.ticks(v=vs.100).aspx</i>
+     * <p>
+     * <b>NOTE: if this is a negative value, it's an integer overflow....</b>
+     */
+    private long lastCheckedTime;
+
+    /**
+     * Last modification time (?)
+     * <p>
+     * <b>NOTE: That question-mark comes from the wiki, so it is probably advised to just not use this field!</b>
+     * <p>
+     * From what I have seen, it looks like this is always <code>0</code>, so its probably unused, or something else.
+     */
+    @Getter(AccessLevel.NONE)
+    private int lastModificationTime2;
+
+    /**
+     * Mania scroll speed
+     */
+    @Getter(AccessLevel.NONE)
+    private byte maniaScrollSpeed;
+
+    // calculated non-provided fields, calculated from the timing points while parsing if Field.BPM is decoded:
+
+    /**
+     * The lowest bpm found in this map
+     */
+    private double bpmMin;
+
+    /**
+     * The highest bpm found in this map
+     */
+    private double bpmMax;
+
+    /**
+     * The main / most used bpm. It looks like this is the value in parentheses as shown in-game.
+     * <i>At least I sincerely hope it is...</i>
+     * <p>
+     * <b>NOTE: This is NOT (at least half the time I tested it) the bpm value provided by the osu!-api or website! I
+     * have no clue where that value is based on...</b>
+     */
+    private double bpm;
+
+    // the booleans of the file and which enums are decoded, see the flag constants
+    @Getter(AccessLevel.NONE)
+    private int flags;
+
+    // all fields that are stored in the file, the calculated ones are at the end of Field
+    private static final Field[] FIELDS = Arrays.copyOf(Field.values(), Field.BPM.ordinal());
+    private static final Set<Field> STORED_FIELDS = Collections.unmodifiableSet(EnumSet.range(Field.ARTIST_NAME, Field.MANIA_SCROLL_SPEED));
+    private static final Set<Field> ALL_FIELDS = Collections.unmodifiableSet(EnumSet.allOf(Field.class));
+    private static final byte[] NO_TIMING_POINTS = new byte[0];
+
+    private OsuBeatmapInfo() {
+    }
+
+    public static OsuBeatmapInfo[] parseArray(OsuDbDataInput iStream, long osuVersion) throws IOException {
+        long beatmapCount = iStream.readUInt32();
+        if (beatmapCount > Integer.MAX_VALUE) {
+            throw new IOException("beatmapCount to much to store the data...");
+        }
+        OsuBeatmapInfo[] beatmaps = new OsuBeatmapInfo[(int) beatmapCount];
+        for (int i = 0; i < beatmaps.length; ++i) {
+            beatmaps[i] = parse(iStream, osuVersion);
+        }
+        return beatmaps;
+    }
+
+    public static OsuBeatmapInfo parse(OsuDbDataInput iStream, long osuVersion) throws IOException {
+        return parse(iStream, osuVersion, ALL_FIELDS);
+    }
+
+    /**
+     * Parse a beatmap, but only decode the fields in <code>fields</code>. All other fields are skipped, so their
+     * getters return <code>null</code>, <code>0</code> or <code>false</code>.
+     *
+     * @param iStream    The input, positioned at the start of a beatmap
+     * @param osuVersion Version of the osu!.db file
+     * @param fields     The fields to decode
+     * @return The beatmap
+     * @throws IOException on error
+     */
+    public static OsuBeatmapInfo parse(OsuDbDataInput iStream, long osuVersion, Set<Field> fields) throws IOException {
+        return parse(iStream, osuVersion, fields, null, null);
+    }
+
+    /**
+     * Parse a beatmap, but stop decoding as soon as one of the <code>predicates</code> rejects it, the rest of the
+     * beatmap is skipped then.
+     * <p>
+     * An {@link OsuDbByteBufferInput} can go back, so on that input only <code>predicateFields</code> are decoded
+     * first, skipping all other fields. Only if the predicates accept the beatmap, it is decoded again from its start,
+     * for the remaining <code>fields</code>. On other inputs all <code>fields</code> are decoded in file order, so a
+     * predicate is only tested once every field before it is decoded.
+     *
+     * @param fields          The fields to decode for an accepted beatmap, including <code>predicateFields</code>
+     * @param predicateFields The fields the predicates use, or <code>null</code> if there are no predicates
+     * @param predicates      Predicate per stored field (by ordinal, may contain <code>null</code>s), tested right after
+     *                        that field is decoded. Or <code>null</code> for no predicates at all.
+     * @return The beatmap, or <code>null</code> if it is rejected
+     */
+    static OsuBeatmapInfo parse(OsuDbDataInput iStream, long osuVersion, Set<Field> fields, Set<Field> predicateFields, Predicate<OsuBeatmapInfo>[] predicates) throws IOException {
+        OsuBeatmapInfo beatmapInfo = new OsuBeatmapInfo();
+        boolean accepted;
+        if (osuVersion < 20160411) {
+            // this might fail, cause between version 20160403 and 20160411 im not sure
+            // i don't even know if there is a version nr between those two hahaha
+            // oh ppy, if only you used a incremental version-id or something....
+            accepted = beatmapInfo.parseData(iStream, iStream, fields, predicateFields, predicates, false);
+        } else {
+            long beatmapBytesLength = iStream.readUInt32();
+            if (beatmapBytesLength > Integer.MAX_VALUE) {
+                throw new IOException("beatmapBytesLength to much to store the data...");
+            }
+//            byte[] beatmapBytes = new byte[(int) beatmapBytesLength];
+//            iStream.readFully(beatmapBytes);
+//
+//            OsuDbInputStream iStream2 = new OsuDbInputStream(new ByteArrayInputStream(beatmapBytes));
+//            beatmapInfo.parseData(iStream2);
+            // closing the sub-input skips whatever is not decoded
+            try (OsuDbDataInput subInput = iStream.subInput((int) beatmapBytesLength)) {
+                accepted = beatmapInfo.parseData(iStream, subInput, fields, predicateFields, predicates, true);
+            }
+        }
+        return accepted ? beatmapInfo : null;
+    }
+
+    /**
+     * Create the row view of {@link OsuDbTable#getRow(int)}
+     */
+    static OsuBeatmapInfo fromTable(OsuDbTable table, int row) {
+        OsuBeatmapInfo beatmap = new OsuBeatmapInfo();
+        beatmap.artistName = table.getArtistName()[row];
+        beatmap.artistNameUnicode = table.getArtistNameUnicode()[row];
+        beatmap.songTitle = table.getSongTitle()[row];
+        beatmap.songTitleUnicode = table.getSongTitleUnicode()[row];
+        beatmap.creatorName = table.getCreatorName()[row];
+        beatmap.difficulty = table.getDifficulty()[row];
+        beatmap.audioFileName = table.getAudioFileName()[row];
+        beatmap.md5BeatmapHash = table.getMd5BeatmapHash()[row];
+        beatmap.osuFileName = table.getOsuFileName()[row];
+        beatmap.rankedStatusRaw = (byte) table.getRankedStatusRaw()[row];
+        beatmap.flags |= HAS_RANKED_STATUS;
+        beatmap.hitcircleCount = (char) table.getHitcircleCount()[row];
+        beatmap.sliderCount = (char) table.getSliderCount()[row];
+        beatmap.spinnerCount = (char) table.getSpinnerCount()[row];
+        beatmap.lastModificationTime = table.getLastModificationTime()[row];
+        beatmap.approachRate = table.getApproachRate()[row];
+        beatmap.circleSize = table.getCircleSize()[row];
+        beatmap.hpDrain = table.getHpDrain()[row];
+        beatmap.overallDifficulty = table.getOverallDifficulty()[row];
+        beatmap.sliderVelocity = table.getSliderVelocity()[row];
+        beatmap.standardStarRating = table.getStarRating(row, 0);
+        beatmap.taikoStarRating = table.getStarRating(row, 1);
+        beatmap.ctbStarRating = table.getStarRating(row, 2);
+        beatmap.maniaStarRating = table.getStarRating(row, 3);
+        beatmap.drainTime = (int) table.getDrainTime()[row];
+        beatmap.totalTime = (int) table.getTotalTime()[row];
+        beatmap.audioPreviewStartTime = (int) table.getAudioPreviewStartTime()[row];
+        beatmap.timingPointBytes = table.getTimingPointBytes()[row];
+        beatmap.beatmapId = (int) table.getBeatmapId()[row];
+        beatmap.beatmapSetId = (int) table.getBeatmapSetId()[row];
+        beatmap.threadId = (int) table.getThreadId()[row];
+        beatmap.localOffset = (char) table.getLocalOffset()[row];
+        beatmap.stackLeniency = table.getStackLeniency()[row];
+        beatmap.source = table.getSource()[row];
+        beatmap.tags = table.getTags()[row];
+        beatmap.onlineOffset = (char) table.getOnlineOffset()[row];
+        beatmap.font = table.getFont()[row];
+        beatmap.setFlag(UNPLAYED, table.getUnplayed()[row]);
+        beatmap.lastTimePlayed = table.getLastTimePlayed()[row];
+        beatmap.setFlag(OSZ2, table.getOsz2()[row]);
+        beatmap.folderName = table.getFolderName()[row];
+        beatmap.lastCheckedTime = table.getLastCheckedTime()[row];
+        beatmap.setFlag(IGNORE_BEATMAP_SOUNDS, table.getIgnoreBeatmapSounds()[row]);
+        beatmap.setFlag(IGNORE_BEATMAP_SKIN, table.getIgnoreBeatmapSkin()[row]);
+        beatmap.setFlag(DISABLE_STORYBOARD, table.getDisableStoryboard()[row]);
+        beatmap.setFlag(DISABLE_VIDEO, table.getDisableVideo()[row]);
+        beatmap.setFlag(VISUAL_OVERRIDE, table.getVisualOverride()[row]);
+        beatmap.lastModificationTime2 = (int) table.getLastModificationTime2()[row];
+        beatmap.maniaScrollSpeed = (byte) table.getManiaScrollSpeed()[row];
+        beatmap.bpmMin = table.getBpmMin()[row];
+        beatmap.bpmMax = table.getBpmMax()[row];
+        beatmap.bpm = table.getBpm()[row];
+        beatmap.setFlag(VARIABLE_BPM, table.getVariableBpm()[row]);
+        int[] grades = {table.getStandardGradeRaw()[row], table.getTaikoGradeRaw()[row], table.getCtbGradeRaw()[row], table.getManiaGradeRaw()[row]};
+        int gameMode = table.getGameModeRaw()[row];
+        boolean complete = gameMode >= 0 && beatmap.timingPointBytes != null;
+        for (int i = 0; i < grades.length; ++i) {
+            if (grades[i] < 0) {
+                complete = false;
+            } else {
+                beatmap.gradesRaw |= grades[i] << (i * 8);
+                beatmap.flags |= HAS_GRADE << i;
+            }
+        }
+        if (gameMode >= 0) {
+            beatmap.gameModeRaw = (byte) gameMode;
+            beatmap.flags |= HAS_GAME_MODE;
+        }
+        beatmap.setFlag(COMPLETE, complete);
+        return beatmap;
+    }
+
+    /**
+     * Skip a beatmap, without decoding it
+     *
+     * @param iStream    The input, positioned at the start of a beatmap
+     * @param osuVersion Version of the osu!.db file
+     * @throws IOException on error
+     */
+    public static void skip(OsuDbDataInput iStream, long osuVersion) throws IOException {
+        if (osuVersion < 20160411) {
+            // no length available, walk over all the fields instead
+            for (Field field : FIELDS) {
+                skipField(iStream, field);
+            }
+        } else {
+            iStream.skipFully(iStream.readUInt32());
+        }
+    }
+
+    /**
+     * See {@link #parse(OsuDbDataInput, long, Set, Set, Predicate[])}
+     *
+     * @param input   The input the beatmap is read from, to go back to the start of the beatmap
+     * @param iStream The input to read the fields from, <code>input</code> or a sub-input of it
+     * @param bounded If <code>iStream</code> ends at the end of this beatmap
+     * @return <code>false</code> if one of the predicates rejected the beatmap
+     */
+    private boolean parseData(OsuDbDataInput input, OsuDbDataInput iStream, Set<Field> fields, Set<Field> predicateFields, Predicate<OsuBeatmapInfo>[] predicates, boolean bounded) throws IOException {
+        if (predicates == null || !(input instanceof OsuDbByteBufferInput)) {
+            // can't go back, so test the predicates while decoding all fields
+            return parseData(iStream, fields, null, predicates, bounded);
+        }
+        OsuDbByteBufferInput buffer = (OsuDbByteBufferInput) input;
+        int start = buffer.position();
+        if (!parseData(iStream, predicateFields, null, predicates, bounded)) {
+            return false;
+        }
+        buffer.position(start);
+        return parseData(iStream, fields, predicateFields, null, bounded);
+    }
+
+    /**
+     * @param iStream    The input
+     * @param fields     The fields to decode
+     * @param decoded    The fields that are decoded already and are skipped now, or <code>null</code>
+     * @param predicates See {@link #parse(OsuDbDataInput, long, Set, Set, Predicate[])}
+     * @param bounded    If <code>iStream</code> ends at the end of this beatmap, in which case there is no need to skip
+     *                   the remaining fields once all wanted fields have been decoded, or the beatmap is rejected.
+     * @return <code>false</code> if one of the predicates rejected the beatmap
+     */
+    private boolean parseData(OsuDbDataInput iStream, Set<Field> fields, Set<Field> decoded, Predicate<OsuBeatmapInfo>[] predicates, boolean bounded) throws IOException {
+        setFlag(COMPLETE, fields == ALL_FIELDS || fields.containsAll(STORED_FIELDS));
+
+        Field lastField = bounded ? lastFieldToRead(fields) : FIELDS[FIELDS.length - 1];
+        for (Field field : FIELDS) {
+            if (field.ordinal() > lastField.ordinal()) {
+                break;
+            }
+            if (decoded != null && isDecoded(field, decoded)) {
+                skipField(iStream, field);
+            } else if (fields.contains(field)) {
+                readField(iStream, field);
+            } else if (field == Field.MD5_BEATMAP_HASH && fields.contains(Field.MD5_HASH)) {
+                md5Hash = Md5Hash.read(iStream);
+            } else if (field.isNeededFor(fields)) {
+                readField(iStream, field);
+            } else {
+                skipField(iStream, field);
+            }
+            if (field == Field.BPM.availableAfter() && fields.contains(Field.BPM) && (decoded == null || !decoded.contains(Field.BPM))) {
+                calcBpm();
+            }
+
+            if (predicates != null && predicates[field.ordinal()] != null && !predicates[field.ordinal()].test(this)) {
+                if (!bounded) {
+                    for (int i = field.ordinal() + 1; i < FIELDS.length; ++i) {
+                        skipField(iStream, FIELDS[i]);
+                    }
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return <code>true</code> if <code>field</code> was read when decoding <code>decoded</code>
+     */
+    private static boolean isDecoded(Field field, Set<Field> decoded) {
+        // only the md5 hash was read for MD5_HASH, not the string of MD5_BEATMAP_HASH
+        return decoded.contains(field) || (field != Field.MD5_BEATMAP_HASH && field.isNeededFor(decoded));
+    }
+
+    private static Field lastFieldToRead(Set<Field> fields) {
+        for (int i = FIELDS.length - 1; i > 0; --i) {
+            if (fields.contains(FIELDS[i]) || FIELDS[i].isNeededFor(fields)) {
+                return FIELDS[i];
+            }
+        }
+        return FIELDS[0];
+    }
+
+    private void readField(OsuDbDataInput iStream, Field field) throws IOException {
+        switch (field) {
+            case ARTIST_NAME:
+                artistName = iStream.readPooledString();
+                break;
+            case ARTIST_NAME_UNICODE:
+                artistNameUnicode = iStream.readPooledString();
+                break;
+            case SONG_TITLE:
+                songTitle = iStream.readPooledString();
+                break;
+            case SONG_TITLE_UNICODE:
+                songTitleUnicode = iStream.readPooledString();
+                break;
+            case CREATOR_NAME:
+                creatorName = iStream.readPooledString();
+                break;
+            case DIFFICULTY:
+                difficulty = iStream.readPooledString();
+                break;
+            case AUDIO_FILE_NAME:
+                audioFileName = iStream.readPooledString();
+                break;
+            case MD5_BEATMAP_HASH:
+                md5BeatmapHash = iStream.readString();
+                break;
+            case OSU_FILE_NAME:
+                osuFileName = iStream.readString();
+                break;
+            case RANKED_STATUS:
+                rankedStatusRaw = (byte) iStream.readUInt8();
+                flags |= HAS_RANKED_STATUS;
+                break;
+            case HITCIRCLE_COUNT:
+                hitcircleCount = (char) iStream.readUInt16();
+                break;
+            case SLIDER_COUNT:
+                sliderCount = (char) iStream.readUInt16();
+                break;
+            case SPINNER_COUNT:
+                spinnerCount = (char) iStream.readUInt16();
+                break;
+            case LAST_MODIFICATION_TIME:
+                lastModificationTime = iStream.readUInt64();
+                break;
+            case APPROACH_RATE:
+                approachRate = iStream.readFloat();
+                break;
+            case CIRCLE_SIZE:
+                circleSize = iStream.readFloat();
+                break;
+            case HP_DRAIN:
+                hpDrain = iStream.readFloat();
+                break;
+            case OVERALL_DIFFICULTY:
+                overallDifficulty = iStream.readFloat();
+                break;
+            case SLIDER_VELOCITY:
+                sliderVelocity = iStream.readDouble();
+                break;
+            case STANDARD_STAR_RATING:
+                standardStarRating = StarRating.parse(iStream);
+                break;
+            case TAIKO_STAR_RATING:
+                taikoStarRating = StarRating.parse(iStream);
+                break;
+            case CTB_STAR_RATING:
+                ctbStarRating = StarRating.parse(iStream);
+                break;
+            case MANIA_STAR_RATING:
+                maniaStarRating = StarRating.parse(iStream);
+                break;
+            case DRAIN_TIME:
+                drainTime = (int) iStream.readUInt32();
+                break;
+            case TOTAL_TIME:
+                totalTime = (int) iStream.readUInt32();
+                break;
+            case AUDIO_PREVIEW_START_TIME:
+                audioPreviewStartTime = (int) iStream.readUInt32();
+                break;
+            case TIMING_POINTS:
+                timingPointBytes = TimingPoint.readEncodedArray(iStream);
+                break;
+            case BEATMAP_ID:
+                beatmapId = (int) iStream.readUInt32();
+                break;
+            case BEATMAP_SET_ID:
+                beatmapSetId = (int) iStream.readUInt32();
+                break;
+            case THREAD_ID:
+                threadId = (int) iStream.readUInt32();
+                break;
+            case STANDARD_GRADE:
+                readGradeRaw(iStream, 0);
+                break;
+            case TAIKO_GRADE:
+                readGradeRaw(iStream, 1);
+                break;
+            case CTB_GRADE:
+                readGradeRaw(iStream, 2);
+                break;
+            case MANIA_GRADE:
+                readGradeRaw(iStream, 3);
+                break;
+            case LOCAL_OFFSET:
+                localOffset = (char) iStream.readUInt16();
+                break;
+            case STACK_LENIENCY:
+                stackLeniency = iStream.readFloat();
+                break;
+            case GAME_MODE:
+                gameModeRaw = (byte) iStream.readUInt8();
+                flags |= HAS_GAME_MODE;
+                break;
+            case SOURCE:
+                source = iStream.readPooledString();
+                break;
+            case TAGS:
+                tags = iStream.readPooledString();
+                break;
+            case ONLINE_OFFSET:
+                onlineOffset = (char) iStream.readUInt16();
+                break;
+            case FONT:
+                font = iStream.readPooledString();
+                break;
+            case UNPLAYED:
+                setFlag(UNPLAYED, iStream.readBoolean());
+                break;
+            case LAST_TIME_PLAYED:
+                lastTimePlayed = iStream.readUInt64();
+                break;
+            case OSZ2:
+                setFlag(OSZ2, iStream.readBoolean());
+                break;
+            case FOLDER_NAME:
+                folderName = iStream.readPooledString();
+                break;
+            case LAST_CHECKED_TIME:
+                lastCheckedTime = iStream.readUInt64();
+                break;
+            case IGNORE_BEATMAP_SOUNDS:
+                setFlag(IGNORE_BEATMAP_SOUNDS, iStream.readBoolean());
+                break;
+            case IGNORE_BEATMAP_SKIN:
+                setFlag(IGNORE_BEATMAP_SKIN, iStream.readBoolean());
+                break;
+            case DISABLE_STORYBOARD:
+                setFlag(DISABLE_STORYBOARD, iStream.readBoolean());
+                break;
+            case DISABLE_VIDEO:
+                setFlag(DISABLE_VIDEO, iStream.readBoolean());
+                break;
+            case VISUAL_OVERRIDE:
+                setFlag(VISUAL_OVERRIDE, iStream.readBoolean());
+                break;
+            case LAST_MODIFICATION_TIME2:
+                lastModificationTime2 = (int) iStream.readUInt32();
+                break;
+            case MANIA_SCROLL_SPEED:
+                maniaScrollSpeed = (byte) iStream.readUInt8();
+                break;
+            default:
+                throw new IllegalArgumentException("field " + field + " is not stored in the file");
+        }
+    }
+
+    private void readGradeRaw(OsuDbDataInput iStream, int gameMode) throws IOException {
+        gradesRaw |= iStream.readUInt8() << (gameMode * 8);
+        flags |= HAS_GRADE << gameMode;
+    }
+
+    private void setFlag(int flag, boolean value) {
+        flags = value ? flags | flag : flags & ~flag;
+    }
+
+    private static void skipField(OsuDbDataInput iStream, Field field) throws IOException {
+        switch (field.encodedSize) {
+            case ENCODED_STRING:
+                iStream.skipString();
+                break;
+            case ENCODED_STAR_RATING:
+                iStream.skipFully(iStream.readUInt32() * StarRating.ENCODED_ENTRY_SIZE);
+                break;
+            case ENCODED_TIMING_POINTS:
+                iStream.skipFully(iStream.readUInt32() * TimingPoint.ENCODED_SIZE);
+                break;
+            default:
+                iStream.skipFully(field.encodedSize);
+                break;
+        }
+    }
+
+    /**
+     * Write the beatmap in the format of the file, the counterpart of {@link #parse(OsuDbDataInput, long)}. For a
+     * beatmap that is parsed from a file that osu! wrote, this gives exactly the same bytes as in that file.
+     *
+     * @param out        The output
+     * @param osuVersion Version of the osu!.db file that is written
+     * @throws IOException           on error
+     * @throws IllegalStateException if not all fields of the beatmap were decoded
+     */
+    public void write(OsuDbOutputStream out, long osuVersion) throws IOException {
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        write(out, osuVersion, record, new OsuDbOutputStream(record));
+    }
+
+    /**
+     * @param record       Buffer for the beatmap, needed to know its length before writing it. Can be reused.
+     * @param recordStream Output writing to <code>record</code>
+     */
+    void write(OsuDbOutputStream out, long osuVersion, ByteArrayOutputStream record, OsuDbOutputStream recordStream) throws IOException {
+        if ((flags & COMPLETE) == 0) {
+            throw new IllegalStateException("can't write a beatmap that was parsed without all of its fields");
+        }
+        if (osuVersion < 20160411) {
+            writeData(out);
+        } else {
+            record.reset();
+            writeData(recordStream);
+            recordStream.flush();
+            out.writeUInt32(record.size());
+            record.writeTo(out);
+        }
+    }
+
+    private void writeData(OsuDbOutputStream out) throws IOException {
+        out.writeString(artistName);
+        out.writeString(artistNameUnicode);
+        out.writeString(songTitle);
+        out.writeString(songTitleUnicode);
+        out.writeString(creatorName);
+        out.writeString(difficulty);
+        out.writeString(audioFileName);
+        out.writeString(md5BeatmapHash);
+        out.writeString(osuFileName);
+        out.writeUInt8(getRankedStatusRaw());
+        out.writeUInt16(hitcircleCount);
+        out.writeUInt16(sliderCount);
+        out.writeUInt16(spinnerCount);
+        out.writeUInt64(lastModificationTime);
+        out.writeFloat(approachRate);
+        out.writeFloat(circleSize);
+        out.writeFloat(hpDrain);
+        out.writeFloat(overallDifficulty);
+        out.writeDouble(sliderVelocity);
+        StarRating.write(standardStarRating, out);
+        StarRating.write(taikoStarRating, out);
+        StarRating.write(ctbStarRating, out);
+        StarRating.write(maniaStarRating, out);
+        out.writeUInt32(getDrainTime());
+        out.writeUInt32(getTotalTime());
+        out.writeUInt32(getAudioPreviewStartTime());
+        out.writeUInt32(timingPointBytes.length / TimingPoint.ENCODED_SIZE);
+        out.write(timingPointBytes);
+        out.writeUInt32(getBeatmapId());
+        out.writeUInt32(getBeatmapSetId());
+        out.writeUInt32(getThreadId());
+        out.writeUInt8(gradesRaw & 0xFF);
+        out.writeUInt8((gradesRaw >>> 8) & 0xFF);
+        out.writeUInt8((gradesRaw >>> 16) & 0xFF);
+        out.writeUInt8((gradesRaw >>> 24) & 0xFF);
+        out.writeUInt16(localOffset);
+        out.writeFloat(stackLeniency);
+        out.writeUInt8(gameModeRaw & 0xFF);
+        out.writeString(source);
+        out.writeString(tags);
+        out.writeUInt16(onlineOffset);
+        out.writeString(font);
+        out.writeBoolean(isUnplayed());
+        out.writeUInt64(lastTimePlayed);
+        out.writeBoolean(isOsz2());
+        out.writeString(folderName);
+        out.writeUInt64(lastCheckedTime);
+        out.writeBoolean(isIgnoreBeatmapSounds());
+        out.writeBoolean(isIgnoreBeatmapSkin());
+        out.writeBoolean(isDisableStoryboard());
+        out.writeBoolean(isDisableVideo());
+        out.writeBoolean(isVisualOverride());
+        out.writeUInt32(getLastModificationTime2());
+        out.writeUInt8(getManiaScrollSpeed());
+    }
+
+    // getters of the fields that are stored more compact than their type, the unsigned values of the file are stored
+    // in a signed type of the same size
+
+    /**
+     * The ranked status of this beatmap. <b>Note that this can return <code>null</code> if there is a value in the
+     * file that I don't know about (yet), even though there is {@link RankedStatus#UNKNOWN}.</b>
+     * <p>
+     * So to summarize: there are two types of "unknown":
+     * <ul>
+     * <li>Unkown by me (the dev): <code>null</code></li>
+     * <li>Unkown by osu: <code>{@link RankedStatus#UNKNOWN}</code>. This usually happens when the beatmap has not yet
+     * been selected in the menu.</li>
+     * </ul>
+     * In case of the first one (well, actually always :P) {@link #getRankedStatusRaw()} will have the raw value, of which you
+     * may be able to do something with.
+     *
+     * @return The ranked status
+     */
+    public RankedStatus getRankedStatus() {
+        return (flags & HAS_RANKED_STATUS) == 0 ? null : RankedStatus.valueOf(getRankedStatusRaw());
+    }
+
+    public int getRankedStatusRaw() {
+        return rankedStatusRaw & 0xFF;
+    }
+
+    public int getHitcircleCount() {
+        return hitcircleCount;
+    }
+
+    public int getSliderCount() {
+        return sliderCount;
+    }
+
+    public int getSpinnerCount() {
+        return spinnerCount;
+    }
+
+    public long getDrainTime() {
+        return drainTime & 0xFFFFFFFFL;
+    }
+
+    public long getTotalTime() {
+        return totalTime & 0xFFFFFFFFL;
+    }
+
+    public long getAudioPreviewStartTime() {
+        return audioPreviewStartTime & 0xFFFFFFFFL;
+    }
+
+    public long getBeatmapId() {
+        return beatmapId & 0xFFFFFFFFL;
+    }
+
+    public long getBeatmapSetId() {
+        return beatmapSetId & 0xFFFFFFFFL;
+    }
+
+    public long getThreadId() {
+        return threadId & 0xFFFFFFFFL;
+    }
+
+    /**
+     * @return Grade achieved in osu! standard
+     */
+    public Grade getStandardGrade() {
+        return grade(0);
+    }
+
+    /**
+     * @return Grade achieved in Taiko
+     */
+    public Grade getTaikoGrade() {
+        return grade(1);
+    }
+
+    /**
+     * @return Grade achieved in CTB
+     */
+    public Grade getCtbGrade() {
+        return grade(2);
+    }
+
+    /**
+     * @return Grade achieved in osu!mania
+     */
+    public Grade getManiaGrade() {
+        return grade(3);
+    }
+
+    private Grade grade(int gameMode) {
+        int raw = getGradeRaw(gameMode);
+        return raw < 0 ? null : Grade.valueOf(raw);
+    }
+
+    /**
+     * @param gameMode Game mode, 0 = osu! standard up to 3 = mania
+     * @return The grade as stored in the file, or <code>-1</code> if it is not decoded
+     */
+    int getGradeRaw(int gameMode) {
+        return (flags & (HAS_GRADE << gameMode)) == 0 ? -1 : (gradesRaw >>> (gameMode * 8)) & 0xFF;
+    }
+
+    public int getLocalOffset() {
+        return localOffset;
+    }
+
+    /**
+     * @return Osu gameplay mode. 0x00 = osu!Standard, 0x01 = Taiko, 0x02 = CTB, 0x03 = Mania
+     */
+    public GameMode getGameMode() {
+        int raw = getGameModeRaw();
+        return raw < 0 ? null : GameMode.valueOf(raw);
+    }
+
+    /**
+     * @return The game mode as stored in the file, or <code>-1</code> if it is not decoded
+     */
+    int getGameModeRaw() {
+        return (flags & HAS_GAME_MODE) == 0 ? -1 : gameModeRaw & 0xFF;
+    }
+
+    public int getOnlineOffset() {
+        return onlineOffset;
+    }
+
+    /**
+     * @return Is beatmap unplayed
+     */
+    public boolean isUnplayed() {
+        return (flags & UNPLAYED) != 0;
+    }
+
+    /**
+     * @return Is the beatmap osz2
+     */
+    public boolean isOsz2() {
+        return (flags & OSZ2) != 0;
+    }
+
+    /**
+     * @return Ignore beatmap sounds
+     */
+    public boolean isIgnoreBeatmapSounds() {
+        return (flags & IGNORE_BEATMAP_SOUNDS) != 0;
+    }
+
+    /**
+     * @return Ignore beatmap skin
+     */
+    public boolean isIgnoreBeatmapSkin() {
+        return (flags & IGNORE_BEATMAP_SKIN) != 0;
+    }
+
+    /**
+     * @return Disable storyboard
+     */
+    public boolean isDisableStoryboard() {
+        return (flags & DISABLE_STORYBOARD) != 0;
+    }
+
+    /**
+     * @return Disable video
+     */
+    public boolean isDisableVideo() {
+        return (flags & DISABLE_VIDEO) != 0;
+    }
+
+    /**
+     * @return Visual override
+     */
+    public boolean isVisualOverride() {
+        return (flags & VISUAL_OVERRIDE) != 0;
+    }
+
+    public long getLastModificationTime2() {
+        return lastModificationTime2 & 0xFFFFFFFFL;
+    }
+
+    public int getManiaScrollSpeed() {
+        return maniaScrollSpeed & 0xFF;
+    }
+
+    boolean isModified() {
+        return (flags & MODIFIED) != 0;
+    }
+
+    // setters for the settings that can be changed per beatmap in osu!, see OsuDbRewriter
+
+    public void setLocalOffset(int localOffset) {
+        if (localOffset < 0 || localOffset > 0xFFFF) {
+            throw new IllegalArgumentException("localOffset out of bounds");
+        }
+        this.localOffset = (char) localOffset;
+        flags |= MODIFIED;
+    }
+
+    public void setIgnoreBeatmapSounds(boolean ignoreBeatmapSounds) {
+        setFlag(IGNORE_BEATMAP_SOUNDS, ignoreBeatmapSounds);
+        flags |= MODIFIED;
+    }
+
+    public void setIgnoreBeatmapSkin(boolean ignoreBeatmapSkin) {
+        setFlag(IGNORE_BEATMAP_SKIN, ignoreBeatmapSkin);
+        flags |= MODIFIED;
+    }
+
+    public void setDisableStoryboard(boolean disableStoryboard) {
+        setFlag(DISABLE_STORYBOARD, disableStoryboard);
+        flags |= MODIFIED;
+    }
+
+    public void setDisableVideo(boolean disableVideo) {
+        setFlag(DISABLE_VIDEO, disableVideo);
+        flags |= MODIFIED;
+    }
+
+    public void setVisualOverride(boolean visualOverride) {
+        setFlag(VISUAL_OVERRIDE, visualOverride);
+        flags |= MODIFIED;
+    }
+
+    public void setManiaScrollSpeed(int maniaScrollSpeed) {
+        if (maniaScrollSpeed < 0 || maniaScrollSpeed > 0xFF) {
+            throw new IllegalArgumentException("maniaScrollSpeed out of bounds");
+        }
+        this.maniaScrollSpeed = (byte) maniaScrollSpeed;
+        flags |= MODIFIED;
+    }
+
+    /**
+     * The MD5 hash of the beatmap as {@link Md5Hash}. Parsed from {@link #getMd5BeatmapHash()} on every call, unless
+     * the beatmap was parsed with {@link Field#MD5_HASH} but without {@link Field#MD5_BEATMAP_HASH}.
+     *
+     * @return The hash, or <code>null</code> if it is not available or not a valid MD5 hash
+     */
+    public Md5Hash getMd5Hash() {
+        return md5Hash != null ? md5Hash : Md5Hash.tryParse(md5BeatmapHash);
+    }
+
+    public TimingPoint[] getTimingPoints() {
+        TimingPoint[] points = timingPoints;
+        if (points == null && timingPointBytes != null) {
+            // decoding twice when called concurrently is harmless, both give the same result
+            points = TimingPoint.decodeArray(timingPointBytes);
+            timingPoints = points;
+        }
+        return points;
+    }
+
+    /**
+     * The timing points packed in a {@link TimingPointTable}, without decoding them into {@link TimingPoint} objects.
+     * Every call gives a new table over the same bytes.
+     *
+     * @return The timing points, or <code>null</code> if they were not parsed
+     */
+    public TimingPointTable getTimingPointTable() {
+        return timingPointBytes == null ? null : new TimingPointTable(timingPointBytes);
+    }
+
+    /**
+     * The timing points as a {@link TimingPointTimeline}, to look up the bpm and beat at a given time. Every call builds
+     * a new timeline, so keep it when doing many lookups.
+     *
+     * @return The timeline, or <code>null</code> if the timing points were not parsed
+     */
+    public TimingPointTimeline getTimingPointTimeline() {
+        return timingPointBytes == null ? null : TimingPointTimeline.build(new TimingPointTable(timingPointBytes));
+    }
+
+    /**
+     * Is the bpm variable? If yes, {@link #getBpmMin()} and {@link #getBpmMax()} are different and {@link #getBpm()}
+     * gives the "main" bpm. If not, they are all the same.
+     *
+     * @return Is the bpm variable
+     */
+    public boolean isVariableBpm() {
+        return (flags & VARIABLE_BPM) != 0;
+    }
+
+    // straight from the encoded timing points in a single pass, without decoding them. No timing points give 0 for all
+    // bpm fields.
+    private void calcBpm() {
+        TimingPointTable table = new TimingPointTable(timingPointBytes == null ? NO_TIMING_POINTS : timingPointBytes);
+        TimingPoint.BpmStatistics statistics = TimingPoint.bpmStatistics(TimingPoint.TABLE, table, getTotalTime());
+        bpmMin = statistics.getBpmMin();
+        bpmMax = statistics.getBpmMax();
+
+        // if bpmMin and bpmMax are different, there is a variable bpm
+        boolean variableBpm = !(bpmMax - bpmMin < 0.001);
+        setFlag(VARIABLE_BPM, variableBpm);
+        // if not, the main bpm is just the same
+        bpm = variableBpm ? statistics.getMainBpm() : bpmMax;
+    }
+
+    /**
+     * The fields of a beatmap, in the order they are stored in the file. Used to select which fields should be decoded
+     * when parsing, see {@link #parse(OsuDbDataInput, long, Set)}.
+     */
+    public enum Field {
+        ARTIST_NAME(ENCODED_STRING),
+        ARTIST_NAME_UNICODE(ENCODED_STRING),
+        SONG_TITLE(ENCODED_STRING),
+        SONG_TITLE_UNICODE(ENCODED_STRING),
+        CREATOR_NAME(ENCODED_STRING),
+        DIFFICULTY(ENCODED_STRING),
+        AUDIO_FILE_NAME(ENCODED_STRING),
+        MD5_BEATMAP_HASH(ENCODED_STRING),
+        OSU_FILE_NAME(ENCODED_STRING),
+        RANKED_STATUS(1),
+        HITCIRCLE_COUNT(2),
+        SLIDER_COUNT(2),
+        SPINNER_COUNT(2),
+        LAST_MODIFICATION_TIME(8),
+        APPROACH_RATE(4),
+        CIRCLE_SIZE(4),
+        HP_DRAIN(4),
+        OVERALL_DIFFICULTY(4),
+        SLIDER_VELOCITY(8),
+        STANDARD_STAR_RATING(ENCODED_STAR_RATING),
+        TAIKO_STAR_RATING(ENCODED_STAR_RATING),
+        CTB_STAR_RATING(ENCODED_STAR_RATING),
+        MANIA_STAR_RATING(ENCODED_STAR_RATING),
+        DRAIN_TIME(4),
+        TOTAL_TIME(4),
+        AUDIO_PREVIEW_START_TIME(4),
+        TIMING_POINTS(ENCODED_TIMING_POINTS),
+        BEATMAP_ID(4),
+        BEATMAP_SET_ID(4),
+        THREAD_ID(4),
+        STANDARD_GRADE(1),
+        TAIKO_GRADE(1),
+        CTB_GRADE(1),
+        MANIA_GRADE(1),
+        LOCAL_OFFSET(2),
+        STACK_LENIENCY(4),
+        GAME_MODE(1),
+        SOURCE(ENCODED_STRING),
+        TAGS(ENCODED_STRING),
+        ONLINE_OFFSET(2),
+        FONT(ENCODED_STRING),
+        UNPLAYED(1),
+        LAST_TIME_PLAYED(8),
+        OSZ2(1),
+        FOLDER_NAME(ENCODED_STRING),
+        LAST_CHECKED_TIME(8),
+        IGNORE_BEATMAP_SOUNDS(1),
+        IGNORE_BEATMAP_SKIN(1),
+        DISABLE_STORYBOARD(1),
+        DISABLE_VIDEO(1),
+        VISUAL_OVERRIDE(1),
+        LAST_MODIFICATION_TIME2(4),
+        MANIA_SCROLL_SPEED(1),
+        /**
+         * The calculated fields {@link #getBpmMin()}, {@link #getBpmMax()}, {@link #getBpm()} and
+         * {@link #isVariableBpm()}. The timing points and total time are decoded for this as well.
+         */
+        BPM(NOT_ENCODED),
+        /**
+         * {@link #getMd5Hash()}, the binary form of {@link #MD5_BEATMAP_HASH}. Selecting this without
+         * {@link #MD5_BEATMAP_HASH} decodes the hash straight into an {@link Md5Hash}, without creating the string.
+         */
+        MD5_HASH(NOT_ENCODED);
+
+        /**
+         * Size in bytes of the field in the file, or one of the <code>ENCODED_*</code> constants for fields with a
+         * variable size
+         */
+        private final int encodedSize;
+
+        Field(int encodedSize) {
+            this.encodedSize = encodedSize;
+        }
+
+        /**
+         * @return The stored field after which this field is available while parsing, this field itself for stored
+         * fields
+         */
+        Field availableAfter() {
+            switch (this) {
+                case BPM:
+                    return TIMING_POINTS;
+                case MD5_HASH:
+                    return MD5_BEATMAP_HASH;
+                default:
+                    return this;
+            }
+        }
+
+        /**
+         * @return <code>true</code> if this stored field is needed to calculate one of the calculated fields in
+         * <code>fields</code>
+         */
+        private boolean isNeededFor(Set<Field> fields) {
+            switch (this) {
+                case TOTAL_TIME:
+                case TIMING_POINTS:
+                    return fields.contains(BPM);
+                case MD5_BEATMAP_HASH:
+                    return fields.contains(MD5_HASH);
+                default:
+                    return false;
+            }
+        }
+    }
+
+    public enum GameMode {
+        //0x00 = osu!Standard, 0x01 = Taiko, 0x02 = CTB, 0x03 = Mania
+        OSU(0), TAIKO(1), CTB(2), MANIA(3);
+
+        private final int value;
+
+        GameMode(int value) {
+            this.value = value;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        private static final Map<Integer, GameMode> MAP;
+
+        static {
+            MAP = new HashMap<>();
+            for (GameMode mode : values()) {
+                MAP.put(mode.value, mode);
+            }
+        }
+
+        public static GameMode valueOf(int i) {
+            return MAP.get(i);
+        }
+    }
+
+    public enum Grade {
+        SSH(0), SS(1), SH(2), S(3), A(4), B(5), C(6), D(7), NONE(9);
+
+        private final int value;
+
+        Grade(int value) {
+            this.value = value;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        private static final Map<Integer, Grade> MAP;
+
+        static {
+            MAP = new HashMap<>();
+            for (Grade grade : values()) {
+                MAP.put(grade.value, grade);
+            }
+        }
+
+        public static Grade valueOf(int value) {
+            return MAP.get(value);
+        }
+    }
+
+    public enum RankedStatus {
+        UNKNOWN(0), NOT_SUBMITTED(1), GRAVEYARD(2), RANKED(4), APPROVED(5), QUALIFIED(6);
+
+        private final int value;
+
+        RankedStatus(int value) {
+            this.value = value;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        private static final Map<Integer, RankedStatus> MAP;
+
+        static {
+            MAP = new HashMap<>();
+            for (RankedStatus grade : values()) {
+                MAP.put(grade.value, grade);
+            }
+        }
+
+        public static RankedStatus valueOf(int value) {
+            return MAP.get(value);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.omkelderman.osudbparser;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The differences between two versions of an osu!.db file. Beatmaps are matched by their MD5 hash, beatmaps without
+ * hash are ignored.
+ */
+@Getter
+public class OsuDbDiff {
+    /**
+     * The older version of the file
+     */
+    private final OsuDbFile previous;
+
+    /**
+     * The newer version of the file
+     */
+    private final OsuDbFile current;
+
+    /**
+     * Beatmaps that are only in {@link #getCurrent()}
+     */
+    private final List<OsuBeatmapInfo> added;
+
+    /**
+     * Beatmaps that are only in {@link #getPrevious()}
+     */
+    private final List<OsuBeatmapInfo> removed;
+
+    /**
+     * Beatmaps that are in both, but changed (for example because the beatmap has been played). These are the
+     * beatmaps from {@link #getCurrent()}.
+     */
+    private final List<OsuBeatmapInfo> modified;
+
+    private OsuDbDiff(OsuDbFile previous, OsuDbFile current, List<OsuBeatmapInfo> added, List<OsuBeatmapInfo> removed, List<OsuBeatmapInfo> modified) {
+        this.previous = previous;
+        this.current = current;
+        this.added = Collections.unmodifiableList(added);
+        this.removed = Collections.unmodifiableList(removed);
+        this.modified = Collections.unmodifiableList(modified);
+    }
+
+    /**
+     * Compare two versions of the file. A beatmap is modified if it is a different object in <code>current</code>, so
+     * <code>current</code> should be parsed with {@link OsuDbFile#parseIncremental(java.nio.file.Path, OsuDbFile)}
+     * from <code>previous</code>, otherwise every beatmap counts as modified.
+     *
+     * @param previous The older version of the file
+     * @param current  The newer version of the file
+     * @return The differences
+     */
+    public static OsuDbDiff between(OsuDbFile previous, OsuDbFile current) {
+        Map<String, OsuBeatmapInfo> previousByHash = byHash(previous.getBeatmaps());
+        Map<String, OsuBeatmapInfo> currentByHash = byHash(current.getBeatmaps());
+
+        List<OsuBeatmapInfo> added = new ArrayList<>();
+        List<OsuBeatmapInfo> modified = new ArrayList<>();
+        for (Map.Entry<String, OsuBeatmapInfo> entry : currentByHash.entrySet()) {
+            OsuBeatmapInfo previousBeatmap = previousByHash.get(entry.getKey());
+            if (previousBeatmap == null) {
+                added.add(entry.getValue());
+            } else if (previousBeatmap != entry.getValue()) {
+                modified.add(entry.getValue());
+            }
+        }
+        List<OsuBeatmapInfo> removed = new ArrayList<>();
+        for (Map.Entry<String, OsuBeatmapInfo> entry : previousByHash.entrySet()) {
+            if (!currentByHash.containsKey(entry.getKey())) {
+                removed.add(entry.getValue());
+            }
+        }
+        return new OsuDbDiff(previous, current, added, removed, modified);
+    }
+
+    private static Map<String, OsuBeatmapInfo> byHash(OsuBeatmapInfo[] beatmaps) {
+        // keep file order, so the lists in the diff are in file order as well
+        Map<String, OsuBeatmapInfo> byHash = new LinkedHashMap<>();
+        for (OsuBeatmapInfo beatmap : beatmaps) {
+            if (beatmap.getMd5BeatmapHash() != null) {
+                byHash.putIfAbsent(beatmap.getMd5BeatmapHash(), beatmap);
+            }
+        }
+        return byHash;
+    }
+
+    /**
+     * @return <code>true</code> if nothing was added, removed or modified
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && modified.isEmpty();
+    }
+}
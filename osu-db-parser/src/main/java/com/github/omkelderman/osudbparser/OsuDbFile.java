@@ -0,0 +1,525 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbByteBufferInput;
+import com.github.omkelderman.osudbparser.io.OsuDbChannelInput;
+import com.github.omkelderman.osudbparser.io.OsuDbDataInput;
+import com.github.omkelderman.osudbparser.io.OsuDbInputStream;
+import com.github.omkelderman.osudbparser.io.OsuDbOutputStream;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Class representing the osu!.db file inside the osu installation directory
+ */
+@Getter
+public class OsuDbFile {
+    /**
+     * osu! version (e.g. 20150203)
+     */
+    private long osuVersion;
+
+    /**
+     * "Folder Count"
+     * <p>
+     * <i>actually what I have observed is more count of things (folders and random files) inside the
+     * songs-directory</i>
+     */
+    private long folderCount;
+
+    /**
+     * AccountUnlocked (only false when the account is locked or banned in any way)
+     */
+    private boolean accountUnlocked;
+
+    // there should be a "Date the account will be unlocked" field here
+    // "skipped" it cause the wiki said "DateTime" as Data Type, was to lazy to figure out what that actually is
+    @Getter(AccessLevel.NONE)
+    private byte[] unknownDateTimeBytes = new byte[8];
+
+    /**
+     * Player name
+     */
+    private String playerName;
+
+    /**
+     * Array of beatmaps
+     */
+    private volatile OsuBeatmapInfo[] beatmaps;
+
+    // "skipped" unknown int
+    @Getter(AccessLevel.NONE)
+    private byte[] unknownIntBytes = new byte[4];
+
+    // only set if the beatmaps are decoded on demand
+    @Getter(AccessLevel.PACKAGE)
+    private BeatmapOffsetIndex beatmapIndex;
+
+    // fingerprint (MD5 as two longs) of the bytes of every beatmap, only set by parseIncremental
+    @Getter(AccessLevel.NONE)
+    private long[] beatmapFingerprints;
+
+    // built on first lookup by hash
+    @Getter(AccessLevel.NONE)
+    private volatile Md5Index md5Index;
+
+    // built on first lookup by id, set id or folder name
+    @Getter(AccessLevel.NONE)
+    private volatile SecondaryIndexes secondaryIndexes;
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final Set<OsuBeatmapInfo.Field> ALL_FIELDS = Collections.unmodifiableSet(EnumSet.allOf(OsuBeatmapInfo.Field.class));
+
+    private OsuDbFile() {
+    }
+
+    public static OsuDbFile parse(String filename) throws IOException {
+        try (FileInputStream fileInputStream = new FileInputStream(filename)) {
+            return parse(fileInputStream);
+        }
+    }
+
+    /**
+     * Parse the file by memory-mapping it, the data is then decoded straight from the mapped memory instead of being
+     * copied through the buffers of an {@link InputStream} first.
+     *
+     * @param path The osu!.db file
+     * @return The parsed file
+     * @throws IOException on error
+     */
+    public static OsuDbFile parse(Path path) throws IOException {
+        return parse(path, ALL_FIELDS);
+    }
+
+    /**
+     * Same as {@link #parse(Path)}, but only decode the supplied fields of each beatmap, all other fields are skipped.
+     *
+     * @param path   The osu!.db file
+     * @param fields The fields to decode, see {@link OsuBeatmapInfo#parse(OsuDbDataInput, long, Set)}
+     * @return The parsed file
+     * @throws IOException on error
+     */
+    public static OsuDbFile parse(Path path, Set<OsuBeatmapInfo.Field> fields) throws IOException {
+        return parse(new OsuDbByteBufferInput(OsuDbByteBufferInput.mapFile(path)), fields);
+    }
+
+    /**
+     * Memory-map the file and only find out where each beatmap starts, without decoding any of them. Beatmaps are then
+     * decoded on demand by {@link #beatmapAt(int)}.
+     * <p>
+     * For files since osu! version 20160411 every beatmap is prefixed with its length, so finding the beatmaps is
+     * only a matter of skipping over them. For older files the fields of each beatmap are skipped one by one.
+     *
+     * @param path The osu!.db file
+     * @return The file, with its beatmaps not decoded yet
+     * @throws IOException on error
+     */
+    public static OsuDbFile parseIndexed(Path path) throws IOException {
+        return parseIndexed(OsuDbByteBufferInput.mapFile(path));
+    }
+
+    /**
+     * Parse the file using multiple threads. The file is memory-mapped and indexed like {@link #parseIndexed(Path)},
+     * after that the beatmaps are decoded in parallel.
+     *
+     * @param path        The osu!.db file
+     * @param parallelism Amount of threads to decode with
+     * @return The parsed file, beatmaps are in the same order as in the file
+     * @throws IOException on error
+     */
+    public static OsuDbFile parseParallel(Path path, int parallelism) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return parseParallel(path, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Parse the file using multiple threads. The file is memory-mapped and indexed like {@link #parseIndexed(Path)},
+     * after that chunks of beatmaps are decoded in parallel on the supplied executor.
+     *
+     * @param path     The osu!.db file
+     * @param executor Executor to decode the beatmaps on, for example a {@link ForkJoinPool}
+     * @return The parsed file, beatmaps are in the same order as in the file
+     * @throws IOException on error
+     */
+    public static OsuDbFile parseParallel(Path path, Executor executor) throws IOException {
+        OsuDbFile file = parseIndexed(OsuDbByteBufferInput.mapFile(path));
+        file.beatmaps = file.beatmapIndex.parseAll(executor, BeatmapOffsetIndex.DEFAULT_CHUNK_SIZE);
+        // everything is decoded, no need to hold on to the mapped file anymore
+        file.beatmapIndex = null;
+        return file;
+    }
+
+    /**
+     * Parse the file again after it has changed. Every beatmap whose bytes have the same MD5 as a beatmap in
+     * <code>previous</code> is taken over from <code>previous</code>, only new and changed beatmaps are decoded. Finding
+     * the beatmaps in the file is done like {@link #parseIndexed(Path)}.
+     * <p>
+     * The bytes themselves are not kept, beatmaps are compared by the 128 bit MD5 of their bytes, which is only kept by
+     * this method. So a changed beatmap is only taken over if its changed bytes have the same MD5, which does not happen
+     * by accident. To benefit from this, <code>previous</code> must be the result of this method as well. Pass
+     * <code>null</code> for the first parse.
+     * <p>
+     * The beatmaps that are taken over are the same objects in both files, so changing one through its setters changes
+     * it in both. Beatmaps of <code>previous</code> that have been changed through their setters are not taken over,
+     * those are decoded from the file again. Every beatmap of <code>previous</code> is taken over at most once, so
+     * when the file has the same beatmap twice, each of them is a different object.
+     *
+     * @param path     The osu!.db file
+     * @param previous The previous result of this method for this file, or <code>null</code>
+     * @return The parsed file
+     * @throws IOException on error
+     */
+    public static OsuDbFile parseIncremental(Path path, OsuDbFile previous) throws IOException {
+        return parseIncremental(OsuDbByteBufferInput.mapFile(path), previous);
+    }
+
+    static OsuDbFile parseIncremental(ByteBuffer buffer, OsuDbFile previous) throws IOException {
+        OsuDbFile file = parseIndexed(buffer);
+        BeatmapOffsetIndex index = file.beatmapIndex;
+
+        MessageDigest md5;
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            // every java platform has MD5
+            throw new IllegalStateException(e);
+        }
+        long[] fingerprints = new long[2 * index.size()];
+        for (int i = 0; i < index.size(); ++i) {
+            index.fingerprint(i, md5, fingerprints);
+        }
+        // the same bytes mean something else in a different version
+        boolean reuse = previous != null && previous.beatmapFingerprints != null && previous.osuVersion == file.osuVersion;
+        LongIndex previousFingerprints = null;
+        boolean[] takenOver = null;
+        if (reuse) {
+            // look up by the first half of the MD5, the second half is compared on a match
+            long[] keys = new long[previous.beatmapFingerprints.length / 2];
+            for (int i = 0; i < keys.length; ++i) {
+                keys[i] = previous.beatmapFingerprints[2 * i];
+            }
+            previousFingerprints = LongIndex.build(keys, 0);
+            takenOver = new boolean[keys.length];
+        }
+
+        OsuBeatmapInfo[] beatmaps = new OsuBeatmapInfo[index.size()];
+        for (int i = 0; i < beatmaps.length; ++i) {
+            OsuBeatmapInfo previousBeatmap = reuse ? previous.takeOver(previousFingerprints, takenOver, fingerprints, i) : null;
+            beatmaps[i] = previousBeatmap != null ? previousBeatmap : index.parse(i);
+        }
+        file.beatmaps = beatmaps;
+        file.beatmapFingerprints = fingerprints;
+        // everything is decoded, no need to hold on to the mapped file anymore
+        file.beatmapIndex = null;
+        return file;
+    }
+
+    /**
+     * @return The unmodified beatmap of this file with the same fingerprint as beatmap <code>index</code>, that is not
+     * taken over yet, or <code>null</code> if there is none
+     */
+    private OsuBeatmapInfo takeOver(LongIndex fingerprintIndex, boolean[] takenOver, long[] fingerprints, int index) {
+        for (int i : fingerprintIndex.all(fingerprints[2 * index])) {
+            if (takenOver[i] || beatmapFingerprints[2 * i + 1] != fingerprints[2 * index + 1]) {
+                continue;
+            }
+            OsuBeatmapInfo beatmap = beatmapAt(i);
+            // an edited beatmap no longer matches the bytes of the fingerprint
+            if (!beatmap.isModified()) {
+                takenOver[i] = true;
+                return beatmap;
+            }
+        }
+        return null;
+    }
+
+    static OsuDbFile parseIndexed(ByteBuffer buffer) throws IOException {
+        OsuDbByteBufferInput iStream = new OsuDbByteBufferInput(buffer);
+        OsuDbReader reader = new OsuDbReader(iStream);
+
+        OsuDbFile file = fromHeader(reader);
+        file.beatmapIndex = BeatmapOffsetIndex.build(buffer, iStream, reader.getBeatmapCount(), reader.getOsuVersion());
+        iStream.readFully(file.unknownIntBytes);
+        return file;
+    }
+
+    /**
+     * Parse a file that is already in memory, for example an upload. The beatmaps are decoded straight from the
+     * buffer, without copying it.
+     *
+     * @param buffer The file, from its position up to its limit. The buffer itself is not modified.
+     * @return The parsed file
+     * @throws IOException on error
+     */
+    public static OsuDbFile parse(ByteBuffer buffer) throws IOException {
+        return parse(buffer, ALL_FIELDS);
+    }
+
+    public static OsuDbFile parse(ByteBuffer buffer, Set<OsuBeatmapInfo.Field> fields) throws IOException {
+        return parse(new OsuDbByteBufferInput(buffer), fields);
+    }
+
+    /**
+     * Parse a file from a channel, see {@link OsuDbChannelInput}. The channel is not closed.
+     *
+     * @param channel The channel, in blocking mode
+     * @return The parsed file
+     * @throws IOException on error
+     */
+    public static OsuDbFile parse(ReadableByteChannel channel) throws IOException {
+        return parse(channel, ALL_FIELDS);
+    }
+
+    public static OsuDbFile parse(ReadableByteChannel channel, Set<OsuBeatmapInfo.Field> fields) throws IOException {
+        return parse(new OsuDbChannelInput(channel), fields);
+    }
+
+    public static OsuDbFile parse(InputStream fileInputStream) throws IOException {
+        return parse(fileInputStream, ALL_FIELDS);
+    }
+
+    public static OsuDbFile parse(InputStream fileInputStream, Set<OsuBeatmapInfo.Field> fields) throws IOException {
+        return parse(new OsuDbInputStream(fileInputStream), fields);
+    }
+
+    public static OsuDbFile parse(OsuDbInputStream iStream) throws IOException {
+        return parse(iStream, ALL_FIELDS);
+    }
+
+    public static OsuDbFile parse(OsuDbInputStream iStream, Set<OsuBeatmapInfo.Field> fields) throws IOException {
+        // an OsuDbInputStream is both an InputStream and an OsuDbDataInput, this overload picks the right one
+        return parse((OsuDbDataInput) iStream, fields);
+    }
+
+    public static OsuDbFile parse(OsuDbDataInput iStream) throws IOException {
+        return parse(iStream, ALL_FIELDS);
+    }
+
+    public static OsuDbFile parse(OsuDbDataInput iStream, Set<OsuBeatmapInfo.Field> fields) throws IOException {
+        OsuDbReader reader = new OsuDbReader(iStream);
+        reader.setFields(fields);
+
+        OsuDbFile file = fromHeader(reader);
+        OsuBeatmapInfo[] beatmaps = new OsuBeatmapInfo[reader.getBeatmapCount()];
+        for (int i = 0; i < beatmaps.length; ++i) {
+            beatmaps[i] = reader.nextBeatmap();
+        }
+        file.beatmaps = beatmaps;
+        iStream.readFully(file.unknownIntBytes);
+        return file;
+    }
+
+    private static OsuDbFile fromHeader(OsuDbReader reader) {
+        OsuDbFile file = new OsuDbFile();
+        file.osuVersion = reader.getOsuVersion();
+        file.folderCount = reader.getFolderCount();
+        file.accountUnlocked = reader.isAccountUnlocked();
+        file.unknownDateTimeBytes = reader.unknownDateTimeBytes;
+        file.playerName = reader.getPlayerName();
+        return file;
+    }
+
+    /**
+     * @return Amount of beatmaps in the file
+     */
+    public int getBeatmapCount() {
+        OsuBeatmapInfo[] decodedBeatmaps = beatmaps;
+        return decodedBeatmaps != null ? decodedBeatmaps.length : beatmapIndex.size();
+    }
+
+    /**
+     * Get a single beatmap. If the file was parsed with {@link #parseIndexed(Path)} only this beatmap is decoded.
+     *
+     * @param index Index of the beatmap in the file
+     * @return The beatmap
+     * @throws IndexOutOfBoundsException if there is no beatmap with that index
+     * @throws UncheckedIOException      if decoding the beatmap failed
+     */
+    public OsuBeatmapInfo beatmapAt(int index) {
+        OsuBeatmapInfo[] decodedBeatmaps = beatmaps;
+        if (decodedBeatmaps != null) {
+            return decodedBeatmaps[index];
+        }
+        try {
+            return beatmapIndex.parse(index);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Array of beatmaps. If the file was parsed with {@link #parseIndexed(Path)}, all beatmaps are decoded on the first
+     * call.
+     *
+     * @return Array of beatmaps
+     * @throws UncheckedIOException if decoding the beatmaps failed
+     */
+    public synchronized OsuBeatmapInfo[] getBeatmaps() {
+        if (beatmaps == null) {
+            OsuBeatmapInfo[] decodedBeatmaps = new OsuBeatmapInfo[beatmapIndex.size()];
+            for (int i = 0; i < decodedBeatmaps.length; ++i) {
+                decodedBeatmaps[i] = beatmapAt(i);
+            }
+            beatmaps = decodedBeatmaps;
+        }
+        return beatmaps;
+    }
+
+    /**
+     * Find a beatmap by its MD5 hash, like replays and scores refer to beatmaps. The lookup index is built on the first
+     * call (which decodes all beatmaps if they are not decoded yet), after that a lookup does not allocate anything.
+     * <p>
+     * Beatmaps parsed without {@link OsuBeatmapInfo.Field#MD5_BEATMAP_HASH} and {@link OsuBeatmapInfo.Field#MD5_HASH}
+     * can't be found.
+     *
+     * @param hash The hash
+     * @return The first beatmap with this hash, or <code>null</code> if there is none
+     */
+    public OsuBeatmapInfo getBeatmapByMd5(Md5Hash hash) {
+        int index = getMd5Index().indexOf(hash.getHigh(), hash.getLow());
+        return index < 0 ? null : beatmapAt(index);
+    }
+
+    /**
+     * See {@link #getBeatmapByMd5(Md5Hash)}
+     *
+     * @param hash The hash as 32 character hex string
+     * @return The first beatmap with this hash, or <code>null</code> if there is none or <code>hash</code> is not a
+     * valid MD5 hash
+     */
+    public OsuBeatmapInfo getBeatmapByMd5(String hash) {
+        Md5Hash md5Hash = Md5Hash.tryParse(hash);
+        return md5Hash == null ? null : getBeatmapByMd5(md5Hash);
+    }
+
+    private Md5Index getMd5Index() {
+        Md5Index index = md5Index;
+        if (index == null) {
+            synchronized (this) {
+                index = md5Index;
+                if (index == null) {
+                    index = Md5Index.build(getBeatmaps());
+                    md5Index = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Find a beatmap by its id. Like all lookups, the lookup indexes are built on the first call (which decodes all
+     * beatmaps if they are not decoded yet), after that this does not scan the beatmaps.
+     *
+     * @param beatmapId The beatmap id, see {@link OsuBeatmapInfo#getBeatmapId()}
+     * @return The first beatmap with this id, or <code>null</code> if there is none or <code>beatmapId</code> is
+     * <code>0</code> (the id of unsubmitted beatmaps)
+     */
+    public OsuBeatmapInfo getBeatmapById(long beatmapId) {
+        int index = getSecondaryIndexes().byBeatmapId(beatmapId);
+        return index < 0 ? null : beatmapAt(index);
+    }
+
+    /**
+     * Find all difficulties of a beatmap set, see {@link #getBeatmapById(long)}
+     *
+     * @param beatmapSetId The beatmap set id, see {@link OsuBeatmapInfo#getBeatmapSetId()}
+     * @return The beatmaps with this set id in file order, empty if there are none
+     */
+    public OsuBeatmapInfo[] getBeatmapsBySetId(long beatmapSetId) {
+        return beatmapsAt(getSecondaryIndexes().byBeatmapSetId(beatmapSetId));
+    }
+
+    /**
+     * Find all beatmaps in a folder, see {@link #getBeatmapById(long)}
+     *
+     * @param folderName The folder name, see {@link OsuBeatmapInfo#getFolderName()}
+     * @return The beatmaps in this folder in file order, empty if there are none
+     */
+    public OsuBeatmapInfo[] getBeatmapsByFolderName(String folderName) {
+        return beatmapsAt(getSecondaryIndexes().byFolderName(folderName));
+    }
+
+    /**
+     * Write the file, for a file that is parsed from an osu!.db file that osu! wrote, this gives exactly the same bytes
+     * as that file.
+     *
+     * @param path The file to write to
+     * @throws IOException           on error
+     * @throws IllegalStateException if the file was parsed without all fields of the beatmaps
+     * @see #write(OutputStream)
+     */
+    public void write(Path path) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            write(outputStream);
+        }
+    }
+
+    /**
+     * Write the file. The output is buffered, <code>outputStream</code> gets the data in large chunks.
+     *
+     * @param outputStream The output, is not closed
+     * @throws IOException           on error
+     * @throws IllegalStateException if the file was parsed without all fields of the beatmaps
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        OsuDbOutputStream out = new OsuDbOutputStream(outputStream, WRITE_BUFFER_SIZE);
+        out.writeUInt32(osuVersion);
+        out.writeUInt32(folderCount);
+        out.writeBoolean(accountUnlocked);
+        out.write(unknownDateTimeBytes);
+        out.writeString(playerName);
+        int beatmapCount = getBeatmapCount();
+        out.writeUInt32(beatmapCount);
+        // one buffer for the length prefixed beatmaps of newer versions, instead of one per beatmap
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        OsuDbOutputStream recordStream = new OsuDbOutputStream(record);
+        for (int i = 0; i < beatmapCount; ++i) {
+            beatmapAt(i).write(out, osuVersion, record, recordStream);
+        }
+        out.write(unknownIntBytes);
+        out.flush();
+    }
+
+    private OsuBeatmapInfo[] beatmapsAt(int[] indexes) {
+        OsuBeatmapInfo[] result = new OsuBeatmapInfo[indexes.length];
+        for (int i = 0; i < indexes.length; ++i) {
+            result[i] = beatmapAt(indexes[i]);
+        }
+        return result;
+    }
+
+    private SecondaryIndexes getSecondaryIndexes() {
+        SecondaryIndexes indexes = secondaryIndexes;
+        if (indexes == null) {
+            synchronized (this) {
+                indexes = secondaryIndexes;
+                if (indexes == null) {
+                    indexes = SecondaryIndexes.build(getBeatmaps());
+                    secondaryIndexes = indexes;
+                }
+            }
+        }
+        return indexes;
+    }
+}
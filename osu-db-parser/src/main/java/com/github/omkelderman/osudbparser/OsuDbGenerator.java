@@ -0,0 +1,294 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Writes synthetic osu!.db files of any size, for load tests and benchmarks. The output only depends on the settings,
+ * so the same seed always gives the same file. For example:
+ * <pre>
+ * new OsuDbGenerator()
+ *         .seed(42)
+ *         .beatmapCount(100000)
+ *         .timingPoints(1, 50)
+ *         .write(path);
+ * </pre>
+ * Beatmaps come in sets (like real beatmap sets) that share their artist, title, creator and folder. The beatmaps are
+ * written one at a time, so files of millions of beatmaps don't need to fit in memory.
+ */
+public class OsuDbGenerator {
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ";
+    private static final String UNICODE_LETTERS = "あいうえおかきくけこさしすせそドラゴンフォース音楽";
+    private static final String[] DIFFICULTIES = {"Easy", "Normal", "Hard", "Insane", "Extra", "Expert"};
+    // the mod combinations in the order osu! writes them
+    private static final long[] STAR_RATING_MODS = {0, 64, 256, 2, 2 | 64, 2 | 256, 16, 16 | 64, 16 | 256};
+
+    private long seed;
+    private int beatmapCount = 1000;
+    private long osuVersion = 20160411;
+    private int beatmapsPerSet = 4;
+    private int minTimingPoints = 1;
+    private int maxTimingPoints = 20;
+    private int minStringLength = 4;
+    private int maxStringLength = 32;
+    private double unicodeFraction = 0.2;
+    private int starRatingCount = StarRating.COMBO_COUNT;
+
+    public OsuDbGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public OsuDbGenerator beatmapCount(int beatmapCount) {
+        if (beatmapCount < 0) {
+            throw new IllegalArgumentException("beatmapCount can't be negative");
+        }
+        this.beatmapCount = beatmapCount;
+        return this;
+    }
+
+    /**
+     * @param osuVersion Version of the file, since 20160411 every beatmap is prefixed with its length
+     * @return This generator
+     */
+    public OsuDbGenerator osuVersion(long osuVersion) {
+        this.osuVersion = osuVersion;
+        return this;
+    }
+
+    public OsuDbGenerator beatmapsPerSet(int beatmapsPerSet) {
+        if (beatmapsPerSet < 1) {
+            throw new IllegalArgumentException("beatmapsPerSet must be at least 1");
+        }
+        this.beatmapsPerSet = beatmapsPerSet;
+        return this;
+    }
+
+    /**
+     * @param min Minimum amount of timing points per beatmap, at least 1
+     * @param max Maximum amount of timing points per beatmap
+     * @return This generator
+     */
+    public OsuDbGenerator timingPoints(int min, int max) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("invalid amount of timing points: " + min + " - " + max);
+        }
+        minTimingPoints = min;
+        maxTimingPoints = max;
+        return this;
+    }
+
+    /**
+     * The length (in characters) of the generated names and tags, uniformly distributed
+     *
+     * @param min Minimum length
+     * @param max Maximum length
+     * @return This generator
+     */
+    public OsuDbGenerator stringLength(int min, int max) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("invalid string length: " + min + " - " + max);
+        }
+        minStringLength = min;
+        maxStringLength = max;
+        return this;
+    }
+
+    /**
+     * @param unicodeFraction Fraction of the sets that have a non-ASCII unicode artist and title
+     * @return This generator
+     */
+    public OsuDbGenerator unicodeFraction(double unicodeFraction) {
+        if (unicodeFraction < 0 || unicodeFraction > 1) {
+            throw new IllegalArgumentException("unicodeFraction must be between 0 and 1");
+        }
+        this.unicodeFraction = unicodeFraction;
+        return this;
+    }
+
+    /**
+     * @param starRatingCount Amount of star ratings per game mode per beatmap, 0 up to the 9 combinations osu! stores
+     * @return This generator
+     */
+    public OsuDbGenerator starRatingCount(int starRatingCount) {
+        if (starRatingCount < 0 || starRatingCount > StarRating.COMBO_COUNT) {
+            throw new IllegalArgumentException("starRatingCount must be between 0 and " + StarRating.COMBO_COUNT);
+        }
+        this.starRatingCount = starRatingCount;
+        return this;
+    }
+
+    public byte[] generate() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(bytes);
+        return bytes.toByteArray();
+    }
+
+    public void write(Path path) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            write(outputStream);
+        }
+    }
+
+    /**
+     * Write the file
+     *
+     * @param outputStream The output, is not closed
+     * @throws IOException on error
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        Random random = new Random(seed);
+        OsuDbOutputStream out = new OsuDbOutputStream(outputStream, 1 << 16);
+        out.writeUInt32(osuVersion);
+        out.writeUInt32((beatmapCount + beatmapsPerSet - 1) / beatmapsPerSet);
+        out.writeBoolean(true);
+        out.writeUInt64(0);
+        out.writeString("generated");
+        out.writeUInt32(beatmapCount);
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        OsuDbOutputStream recordStream = new OsuDbOutputStream(record);
+        BeatmapSet set = null;
+        for (int i = 0; i < beatmapCount; ++i) {
+            if (i % beatmapsPerSet == 0) {
+                set = new BeatmapSet(random, i / beatmapsPerSet + 1);
+            }
+            if (osuVersion < 20160411) {
+                writeBeatmap(out, random, set, i);
+            } else {
+                record.reset();
+                writeBeatmap(recordStream, random, set, i);
+                recordStream.flush();
+                out.writeUInt32(record.size());
+                record.writeTo(out);
+            }
+        }
+        out.writeUInt32(0);
+        out.flush();
+    }
+
+    private void writeBeatmap(OsuDbOutputStream out, Random random, BeatmapSet set, int index) throws IOException {
+        String difficulty = DIFFICULTIES[index % beatmapsPerSet % DIFFICULTIES.length];
+        out.writeString(set.artist);
+        out.writeString(set.artistUnicode);
+        out.writeString(set.title);
+        out.writeString(set.titleUnicode);
+        out.writeString(set.creator);
+        out.writeString(difficulty);
+        out.writeString("audio.mp3");
+        out.writeString(String.format("%016x%016x", random.nextLong(), random.nextLong()));
+        out.writeString(set.artist + " - " + set.title + " (" + set.creator + ") [" + difficulty + "].osu");
+        out.writeUInt8(random.nextInt(8));
+        out.writeUInt16(random.nextInt(2000));
+        out.writeUInt16(random.nextInt(1000));
+        out.writeUInt16(random.nextInt(10));
+        out.writeUInt64(set.lastModificationTime);
+        for (int i = 0; i < 4; ++i) {
+            // approach rate, circle size, hp drain, overall difficulty
+            out.writeFloat(random.nextInt(101) / 10F);
+        }
+        out.writeDouble(0.4 + random.nextInt(33) / 10D);
+        for (int mode = 0; mode < 4; ++mode) {
+            out.writeUInt32(starRatingCount);
+            double nomod = random.nextDouble() * 8;
+            for (int i = 0; i < starRatingCount; ++i) {
+                out.writeUInt8(0x08);
+                out.writeUInt32(STAR_RATING_MODS[i]);
+                out.writeUInt8(0x0D);
+                out.writeDouble(nomod * (0.8 + random.nextDouble() * 0.5));
+            }
+        }
+        long totalTime = 30000 + random.nextInt(300000);
+        out.writeUInt32(totalTime * 9 / 10 / 1000);
+        out.writeUInt32(totalTime);
+        out.writeUInt32(random.nextInt((int) totalTime));
+        writeTimingPoints(out, random, totalTime);
+        out.writeUInt32(index + 1);
+        out.writeUInt32(set.id);
+        out.writeUInt32(0);
+        for (int i = 0; i < 4; ++i) {
+            // a grade, or 9 for not played
+            out.writeUInt8(random.nextInt(4) == 0 ? random.nextInt(9) : 9);
+        }
+        out.writeUInt16(0);
+        out.writeFloat(0.7F);
+        out.writeUInt8(random.nextInt(4));
+        out.writeString(set.source);
+        out.writeString(set.tags);
+        out.writeUInt16(0);
+        out.writeString("");
+        out.writeBoolean(random.nextBoolean());
+        out.writeUInt64(set.lastModificationTime + random.nextInt(1000000));
+        out.writeBoolean(false);
+        out.writeString(set.folderName);
+        out.writeUInt64(set.lastModificationTime);
+        for (int i = 0; i < 5; ++i) {
+            // ignore sounds, ignore skin, disable storyboard, disable video, visual override
+            out.writeBoolean(random.nextInt(10) == 0);
+        }
+        out.writeUInt32(0);
+        out.writeUInt8(random.nextInt(40));
+    }
+
+    private void writeTimingPoints(OsuDbOutputStream out, Random random, long totalTime) throws IOException {
+        int count = minTimingPoints + random.nextInt(maxTimingPoints - minTimingPoints + 1);
+        out.writeUInt32(count);
+        double msPerBeat = 60000D / (100 + random.nextInt(150));
+        for (int i = 0; i < count; ++i) {
+            // the first timing point is always uninherited, after that a bpm change now and then
+            boolean uninherited = i == 0 || random.nextInt(5) == 0;
+            if (uninherited && i > 0) {
+                msPerBeat = 60000D / (100 + random.nextInt(150));
+            }
+            out.writeDouble(uninherited ? msPerBeat : -100D / (0.5 + random.nextDouble()));
+            out.writeDouble((double) i * totalTime / count);
+            out.writeBoolean(uninherited);
+        }
+    }
+
+    private String randomString(Random random, String letters) {
+        int length = minStringLength + random.nextInt(maxStringLength - minStringLength + 1);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; ++i) {
+            builder.append(letters.charAt(random.nextInt(letters.length())));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * What the beatmaps of a set have in common
+     */
+    private class BeatmapSet {
+        private final int id;
+        private final String artist;
+        private final String artistUnicode;
+        private final String title;
+        private final String titleUnicode;
+        private final String creator;
+        private final String source;
+        private final String tags;
+        private final String folderName;
+        private final long lastModificationTime;
+
+        private BeatmapSet(Random random, int id) {
+            this.id = id;
+            artist = randomString(random, LETTERS);
+            title = randomString(random, LETTERS);
+            boolean unicode = random.nextDouble() < unicodeFraction;
+            artistUnicode = unicode ? randomString(random, UNICODE_LETTERS) : artist;
+            titleUnicode = unicode ? randomString(random, UNICODE_LETTERS) : title;
+            creator = randomString(random, LETTERS);
+            source = random.nextBoolean() ? "" : randomString(random, LETTERS);
+            tags = randomString(random, LETTERS) + " " + randomString(random, LETTERS);
+            folderName = id + " " + artist + " - " + title;
+            // Windows ticks, somewhere in 2016
+            lastModificationTime = 635872032000000000L + (random.nextLong() & 0xFFFFFFFFFFFFL);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.OsuBeatmapInfo.Field;
+import com.github.omkelderman.osudbparser.io.OsuDbByteBufferInput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Filter on the beatmaps of an osu!.db file, that is tested while the beatmaps are decoded. Every predicate belongs to a
+ * field and is tested as soon as that field is decoded, once a predicate rejects a beatmap the rest of it is skipped
+ * without decoding it. For example:
+ * <pre>
+ * List&lt;OsuBeatmapInfo&gt; maps = OsuDbQuery
+ *         .where(Field.GAME_MODE, b -&gt; b.getGameMode() == GameMode.MANIA)
+ *         .and(Field.MANIA_STAR_RATING, b -&gt; b.getManiaStarRating() != null &amp;&amp; b.getManiaStarRating().forMods(0) &gt; 5)
+ *         .execute(path);
+ * </pre>
+ * A predicate may only use the fields that the predicates of the query are on. When the beatmaps are length-prefixed
+ * (osu! version 20160411 and up) and read from a file, or another {@link OsuDbByteBufferInput}, only those fields are
+ * decoded first and all other fields are skipped. Only an accepted beatmap is decoded again, for the selected fields.
+ * <p>
+ * An input stream can't go back, so there the fields are decoded in the order of {@link Field}, the order in which
+ * they are stored, and every predicate is tested as soon as its field is decoded. The earlier a field is in there, the
+ * sooner its predicate can reject a beatmap. So in the example the star rating is tested first, for every game mode,
+ * after every field before it has been decoded.
+ * <p>
+ * Queries are immutable, {@link #and(Field, Predicate)} and {@link #select(Set)} return a new query.
+ */
+public final class OsuDbQuery {
+    private static final Field[] FIELDS = Field.values();
+
+    // predicate per stored field, by ordinal
+    private final Predicate<OsuBeatmapInfo>[] predicates;
+
+    // the fields that the predicates need
+    private final Set<Field> predicateFields;
+
+    // the fields to decode for the beatmaps that are accepted
+    private final Set<Field> selectedFields;
+
+    private OsuDbQuery(Predicate<OsuBeatmapInfo>[] predicates, Set<Field> predicateFields, Set<Field> selectedFields) {
+        this.predicates = predicates;
+        this.predicateFields = predicateFields;
+        this.selectedFields = selectedFields;
+    }
+
+    /**
+     * Start a query
+     *
+     * @param field     The field the predicate tests
+     * @param predicate The predicate, only beatmaps for which it returns <code>true</code> are accepted
+     * @return The query
+     */
+    public static OsuDbQuery where(Field field, Predicate<OsuBeatmapInfo> predicate) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Predicate<OsuBeatmapInfo>[] predicates = (Predicate<OsuBeatmapInfo>[]) new Predicate[FIELDS.length];
+        OsuDbQuery query = new OsuDbQuery(predicates, EnumSet.noneOf(Field.class), EnumSet.allOf(Field.class));
+        return query.and(field, predicate);
+    }
+
+    /**
+     * @param field     The field the predicate tests
+     * @param predicate The predicate, only beatmaps for which it returns <code>true</code> are accepted
+     * @return New query, that only accepts beatmaps accepted by this query and <code>predicate</code>
+     */
+    public OsuDbQuery and(Field field, Predicate<OsuBeatmapInfo> predicate) {
+        Predicate<OsuBeatmapInfo>[] newPredicates = predicates.clone();
+        int index = field.availableAfter().ordinal();
+        newPredicates[index] = newPredicates[index] == null ? predicate : newPredicates[index].and(predicate);
+        Set<Field> newPredicateFields = EnumSet.copyOf(predicateFields);
+        newPredicateFields.add(field);
+        return new OsuDbQuery(newPredicates, newPredicateFields, selectedFields);
+    }
+
+    /**
+     * Only decode <code>fields</code> of the accepted beatmaps, like {@link OsuDbReader#setFields(Set)}. The fields the
+     * predicates need are always decoded. By default all fields are decoded.
+     *
+     * @param fields The fields to decode
+     * @return New query, with the same predicates
+     */
+    public OsuDbQuery select(Set<Field> fields) {
+        return new OsuDbQuery(predicates, predicateFields, EnumSet.copyOf(fields));
+    }
+
+    public List<OsuBeatmapInfo> execute(Path path) throws IOException {
+        try (OsuDbReader reader = OsuDbReader.open(path)) {
+            return execute(reader);
+        }
+    }
+
+    public List<OsuBeatmapInfo> execute(InputStream inputStream) throws IOException {
+        return execute(OsuDbReader.open(inputStream));
+    }
+
+    /**
+     * Run the query on the beatmaps that have not been read from <code>reader</code> yet. The fields set on the reader
+     * are not used, see {@link #select(Set)} instead.
+     *
+     * @param reader The reader
+     * @return The accepted beatmaps, in file order
+     * @throws IOException on error
+     */
+    public List<OsuBeatmapInfo> execute(OsuDbReader reader) throws IOException {
+        Set<Field> fields = decodedFields();
+        List<OsuBeatmapInfo> result = new ArrayList<>();
+        while (reader.hasNextBeatmap()) {
+            OsuBeatmapInfo beatmap = reader.nextBeatmap(fields, predicateFields, predicates);
+            if (beatmap != null) {
+                result.add(beatmap);
+            }
+        }
+        return result;
+    }
+
+    private Set<Field> decodedFields() {
+        Set<Field> fields = EnumSet.copyOf(selectedFields);
+        fields.addAll(predicateFields);
+        return Collections.unmodifiableSet(fields);
+    }
+}
@@ -0,0 +1,251 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbByteBufferInput;
+import com.github.omkelderman.osudbparser.io.OsuDbChannelInput;
+import com.github.omkelderman.osudbparser.io.OsuDbDataInput;
+import com.github.omkelderman.osudbparser.io.OsuDbInputStream;
+import com.github.omkelderman.osudbparser.io.StringPool;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streaming reader for the osu!.db file. The header fields are read right away, the beatmaps are read one at a time
+ * when asked for. So unlike {@link OsuDbFile}, which keeps every beatmap in memory, this can scan a database of any
+ * size with constant memory.
+ * <p>
+ * Beatmaps can only be read once, in the order they are in the file.
+ */
+@Getter
+public class OsuDbReader implements Closeable {
+    /**
+     * osu! version (e.g. 20150203)
+     */
+    private long osuVersion;
+
+    /**
+     * "Folder Count", see {@link OsuDbFile#getFolderCount()}
+     */
+    private long folderCount;
+
+    /**
+     * AccountUnlocked (only false when the account is locked or banned in any way)
+     */
+    private boolean accountUnlocked;
+
+    @Getter(AccessLevel.NONE)
+    byte[] unknownDateTimeBytes = new byte[8];
+
+    /**
+     * Player name
+     */
+    private String playerName;
+
+    /**
+     * Amount of beatmaps in the file
+     */
+    private int beatmapCount;
+
+    /**
+     * Amount of beatmaps that have been read so far
+     */
+    private int beatmapsRead;
+
+    /**
+     * The fields to decode for each beatmap, by default all of them. See
+     * {@link OsuBeatmapInfo#parse(OsuDbDataInput, long, Set)}.
+     */
+    @Setter
+    private Set<OsuBeatmapInfo.Field> fields = EnumSet.allOf(OsuBeatmapInfo.Field.class);
+
+    @Getter(AccessLevel.NONE)
+    private final OsuDbDataInput iStream;
+
+    /**
+     * Pool to deduplicate the strings that repeat between beatmaps (artist, creator, folder name, etc.), or
+     * <code>null</code> (the default) to not pool strings. See {@link StringPool}.
+     *
+     * @param stringPool The pool, which can be shared between multiple readers
+     */
+    public void setStringPool(StringPool stringPool) {
+        iStream.setStringPool(stringPool);
+    }
+
+    public StringPool getStringPool() {
+        return iStream.getStringPool();
+    }
+
+    OsuDbReader(OsuDbDataInput iStream) throws IOException {
+        this.iStream = iStream;
+        osuVersion = iStream.readUInt32();
+        if (osuVersion < 20140609) {
+            throw new IOException("osu version too old");
+        }
+        folderCount = iStream.readUInt32();
+        accountUnlocked = iStream.readBoolean();
+        iStream.readFully(unknownDateTimeBytes);
+        playerName = iStream.readString();
+
+        long count = iStream.readUInt32();
+        if (count > Integer.MAX_VALUE) {
+            throw new IOException("beatmapCount to much to store the data...");
+        }
+        beatmapCount = (int) count;
+    }
+
+    public static OsuDbReader open(String filename) throws IOException {
+        return open(new FileInputStream(filename));
+    }
+
+    /**
+     * Open the file by memory-mapping it, see {@link OsuDbFile#parse(Path)}
+     *
+     * @param path The osu!.db file
+     * @return The reader, positioned at the first beatmap
+     * @throws IOException on error
+     */
+    public static OsuDbReader open(Path path) throws IOException {
+        return open(new OsuDbByteBufferInput(OsuDbByteBufferInput.mapFile(path)));
+    }
+
+    /**
+     * Open a file that is already in memory, see {@link OsuDbFile#parse(ByteBuffer)}
+     *
+     * @param buffer The file, from its position up to its limit
+     * @return The reader, positioned at the first beatmap
+     * @throws IOException on error
+     */
+    public static OsuDbReader open(ByteBuffer buffer) throws IOException {
+        return open(new OsuDbByteBufferInput(buffer));
+    }
+
+    /**
+     * Open a file from a channel, see {@link OsuDbChannelInput}. Closing the reader closes the channel.
+     *
+     * @param channel The channel, in blocking mode
+     * @return The reader, positioned at the first beatmap
+     * @throws IOException on error
+     */
+    public static OsuDbReader open(ReadableByteChannel channel) throws IOException {
+        return open(new OsuDbChannelInput(channel));
+    }
+
+    public static OsuDbReader open(InputStream inputStream) throws IOException {
+        return open(new OsuDbInputStream(inputStream));
+    }
+
+    public static OsuDbReader open(OsuDbInputStream iStream) throws IOException {
+        return open((OsuDbDataInput) iStream);
+    }
+
+    public static OsuDbReader open(OsuDbDataInput iStream) throws IOException {
+        try {
+            return new OsuDbReader(iStream);
+        } catch (IOException e) {
+            iStream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return <code>true</code> if there are beatmaps left to read
+     */
+    public boolean hasNextBeatmap() {
+        return beatmapsRead < beatmapCount;
+    }
+
+    /**
+     * Read the next beatmap
+     *
+     * @return The next beatmap
+     * @throws IOException            on error
+     * @throws NoSuchElementException if all beatmaps have been read already
+     */
+    public OsuBeatmapInfo nextBeatmap() throws IOException {
+        if (!hasNextBeatmap()) {
+            throw new NoSuchElementException();
+        }
+        OsuBeatmapInfo beatmap = OsuBeatmapInfo.parse(iStream, osuVersion, fields);
+        ++beatmapsRead;
+        return beatmap;
+    }
+
+    /**
+     * Read the next beatmap for {@link OsuDbQuery}
+     *
+     * @return The next beatmap, or <code>null</code> if it is rejected by the predicates
+     */
+    OsuBeatmapInfo nextBeatmap(Set<OsuBeatmapInfo.Field> fields, Set<OsuBeatmapInfo.Field> predicateFields, Predicate<OsuBeatmapInfo>[] predicates) throws IOException {
+        if (!hasNextBeatmap()) {
+            throw new NoSuchElementException();
+        }
+        OsuBeatmapInfo beatmap = OsuBeatmapInfo.parse(iStream, osuVersion, fields, predicateFields, predicates);
+        ++beatmapsRead;
+        return beatmap;
+    }
+
+    /**
+     * Iterator over the beatmaps that have not been read yet. An {@link IOException} while reading is rethrown as an
+     * {@link UncheckedIOException}.
+     *
+     * @return Iterator over the remaining beatmaps
+     */
+    public Iterator<OsuBeatmapInfo> beatmapIterator() {
+        return new Iterator<OsuBeatmapInfo>() {
+            @Override
+            public boolean hasNext() {
+                return hasNextBeatmap();
+            }
+
+            @Override
+            public OsuBeatmapInfo next() {
+                try {
+                    return nextBeatmap();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Sequential stream over the beatmaps that have not been read yet. Closing the stream closes this reader. An
+     * {@link IOException} while reading is rethrown as an {@link UncheckedIOException}.
+     *
+     * @return Stream of the remaining beatmaps
+     */
+    public Stream<OsuBeatmapInfo> beatmaps() {
+        Spliterator<OsuBeatmapInfo> spliterator = Spliterators.spliterator(beatmapIterator(),
+                beatmapCount - beatmapsRead, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        iStream.close();
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbByteBufferInput;
+import com.github.omkelderman.osudbparser.io.OsuDbOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Edits an osu!.db file without encoding all of it again. Beatmaps are decoded on demand and changed through their
+ * setters (like {@link OsuBeatmapInfo#setLocalOffset(int)}), after that {@link #write(Path)} writes the new file. Only
+ * the changed beatmaps are encoded, everything else is copied from the source file as is, with
+ * {@link FileChannel#transferTo(long, long, WritableByteChannel)}. So the cost of an edit depends on the size of the
+ * change, not on the size of the file. For example:
+ * <pre>
+ * try (OsuDbRewriter rewriter = OsuDbRewriter.open(path)) {
+ *     rewriter.beatmapAt(12).setDisableVideo(true);
+ *     rewriter.write(newPath);
+ * }
+ * </pre>
+ * A rewriter is not thread-safe.
+ */
+public class OsuDbRewriter implements Closeable {
+    private final Path path;
+    private final FileChannel source;
+    private final OsuDbFile file;
+    private final BeatmapOffsetIndex index;
+
+    // the beatmaps handed out by beatmapAt, by index, so changes to them are kept
+    private final Map<Integer, OsuBeatmapInfo> beatmaps = new TreeMap<>();
+
+    private OsuDbRewriter(Path path, FileChannel source, OsuDbFile file) {
+        this.path = path;
+        this.source = source;
+        this.file = file;
+        this.index = file.getBeatmapIndex();
+    }
+
+    /**
+     * Open a file for editing. The file is memory-mapped and indexed like {@link OsuDbFile#parseIndexed(Path)}.
+     *
+     * @param path The osu!.db file
+     * @return The rewriter
+     * @throws IOException on error
+     */
+    public static OsuDbRewriter open(Path path) throws IOException {
+        FileChannel source = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new OsuDbRewriter(path, source, OsuDbFile.parseIndexed(OsuDbByteBufferInput.mapFile(path)));
+        } catch (IOException e) {
+            source.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The source file. Changes to beatmaps gotten from it are not written, use {@link #beatmapAt(int)}
+     * instead.
+     */
+    public OsuDbFile getFile() {
+        return file;
+    }
+
+    public int getBeatmapCount() {
+        return index.size();
+    }
+
+    /**
+     * Get a beatmap to change. Every call with the same index gives the same object.
+     *
+     * @param index Index of the beatmap in the file
+     * @return The beatmap
+     * @throws IndexOutOfBoundsException if there is no beatmap with that index
+     * @throws IOException               if decoding the beatmap failed
+     */
+    public OsuBeatmapInfo beatmapAt(int index) throws IOException {
+        OsuBeatmapInfo beatmap = beatmaps.get(index);
+        if (beatmap == null) {
+            beatmap = this.index.parse(index);
+            beatmaps.put(index, beatmap);
+        }
+        return beatmap;
+    }
+
+    /**
+     * Write the file with the changed beatmaps to a new file
+     *
+     * @param target The file to write to, can't be the source file
+     * @throws IOException on error
+     */
+    public void write(Path target) throws IOException {
+        if (Files.exists(target) && Files.isSameFile(path, target)) {
+            throw new IllegalArgumentException("can't write to the file that is being rewritten");
+        }
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(channel);
+        }
+    }
+
+    /**
+     * Write the file with the changed beatmaps
+     *
+     * @param target The output, is not closed
+     * @throws IOException on error
+     */
+    public void write(WritableByteChannel target) throws IOException {
+        OsuDbOutputStream out = new OsuDbOutputStream(Channels.newOutputStream(target));
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        OsuDbOutputStream recordStream = new OsuDbOutputStream(record);
+        // everything between the changed beatmaps is copied, including the header and the trailing bytes
+        long copyFrom = 0;
+        for (Map.Entry<Integer, OsuBeatmapInfo> entry : beatmaps.entrySet()) {
+            if (entry.getValue().isModified()) {
+                int i = entry.getKey();
+                transfer(copyFrom, index.start(i), target);
+                entry.getValue().write(out, file.getOsuVersion(), record, recordStream);
+                // the copied bytes go to the channel directly, so flush before the next copy
+                out.flush();
+                copyFrom = index.end(i);
+            }
+        }
+        transfer(copyFrom, source.size(), target);
+    }
+
+    private void transfer(long from, long to, WritableByteChannel target) throws IOException {
+        while (from < to) {
+            long transferred = source.transferTo(from, to - from, target);
+            if (transferred == 0) {
+                // the source file got shorter since it was indexed
+                throw new EOFException("source file ends at " + from + " instead of " + to);
+            }
+            from += transferred;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+}
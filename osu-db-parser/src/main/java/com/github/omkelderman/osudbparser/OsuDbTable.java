@@ -0,0 +1,649 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbDataInput;
+import com.github.omkelderman.osudbparser.io.OsuDbInputStream;
+import com.github.omkelderman.osudbparser.io.StringPool;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column-oriented alternative to {@link OsuDbFile}. Instead of one {@link OsuBeatmapInfo} object per beatmap, every
+ * field is stored in its own array (a column), indexed by the position of the beatmap in the file (the row). Scanning
+ * a few fields of all beatmaps then only touches the memory of those columns.
+ * <p>
+ * The strings that repeat between beatmaps (artist, creator, folder name, etc.) are deduplicated with a
+ * {@link StringPool}. The arrays returned by the column getters are the columns themselves, so don't modify them.
+ * {@link #getRow(int)} gives a regular {@link OsuBeatmapInfo} for a single row.
+ */
+@Getter
+public class OsuDbTable {
+    /**
+     * osu! version (e.g. 20150203)
+     */
+    private final long osuVersion;
+
+    /**
+     * "Folder Count", see {@link OsuDbFile#getFolderCount()}
+     */
+    private final long folderCount;
+
+    /**
+     * AccountUnlocked (only false when the account is locked or banned in any way)
+     */
+    private final boolean accountUnlocked;
+
+    /**
+     * Player name
+     */
+    private final String playerName;
+
+    /**
+     * Amount of beatmaps, the length of every column
+     */
+    private final int rowCount;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getArtistName()}
+     */
+    private final String[] artistName;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getArtistNameUnicode()}
+     */
+    private final String[] artistNameUnicode;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getSongTitle()}
+     */
+    private final String[] songTitle;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getSongTitleUnicode()}
+     */
+    private final String[] songTitleUnicode;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getCreatorName()}
+     */
+    private final String[] creatorName;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getDifficulty()}
+     */
+    private final String[] difficulty;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getAudioFileName()}
+     */
+    private final String[] audioFileName;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getMd5BeatmapHash()}
+     */
+    private final String[] md5BeatmapHash;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getOsuFileName()}
+     */
+    private final String[] osuFileName;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getRankedStatusRaw()}
+     */
+    private final int[] rankedStatusRaw;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getHitcircleCount()}
+     */
+    private final int[] hitcircleCount;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getSliderCount()}
+     */
+    private final int[] sliderCount;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getSpinnerCount()}
+     */
+    private final int[] spinnerCount;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getLastModificationTime()}
+     */
+    private final long[] lastModificationTime;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getApproachRate()}
+     */
+    private final float[] approachRate;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getCircleSize()}
+     */
+    private final float[] circleSize;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getHpDrain()}
+     */
+    private final float[] hpDrain;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getOverallDifficulty()}
+     */
+    private final float[] overallDifficulty;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getSliderVelocity()}
+     */
+    private final double[] sliderVelocity;
+
+    // see getStandardStarRatingColumn(long)
+    @Getter(AccessLevel.NONE)
+    private final double[][] standardStarRating;
+
+    // see getTaikoStarRatingColumn(long)
+    @Getter(AccessLevel.NONE)
+    private final double[][] taikoStarRating;
+
+    // see getCtbStarRatingColumn(long)
+    @Getter(AccessLevel.NONE)
+    private final double[][] ctbStarRating;
+
+    // see getManiaStarRatingColumn(long)
+    @Getter(AccessLevel.NONE)
+    private final double[][] maniaStarRating;
+
+    // the star ratings that are more than a rating per mod combination (see StarRating#isComboRatingsOnly()), by row
+    // and then by game mode. osu! does not write those, so this is almost always empty.
+    @Getter(AccessLevel.NONE)
+    private final Map<Integer, StarRating[]> otherStarRatings = new HashMap<>();
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getDrainTime()}
+     */
+    private final long[] drainTime;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getTotalTime()}
+     */
+    private final long[] totalTime;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getAudioPreviewStartTime()}
+     */
+    private final long[] audioPreviewStartTime;
+
+    // timing points as they are stored in the file, the row view decodes them on demand
+    @Getter(AccessLevel.PACKAGE)
+    private final byte[][] timingPointBytes;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getBeatmapId()}
+     */
+    private final long[] beatmapId;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getBeatmapSetId()}
+     */
+    private final long[] beatmapSetId;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getThreadId()}
+     */
+    private final long[] threadId;
+
+    /**
+     * Column of the raw value of {@link OsuBeatmapInfo#getStandardGrade()}, <code>-1</code> if it was not parsed. See
+     * {@link #getStandardGrade(int)}.
+     */
+    private final int[] standardGradeRaw;
+
+    /**
+     * Column of the raw value of {@link OsuBeatmapInfo#getTaikoGrade()}, <code>-1</code> if it was not parsed. See
+     * {@link #getTaikoGrade(int)}.
+     */
+    private final int[] taikoGradeRaw;
+
+    /**
+     * Column of the raw value of {@link OsuBeatmapInfo#getCtbGrade()}, <code>-1</code> if it was not parsed. See
+     * {@link #getCtbGrade(int)}.
+     */
+    private final int[] ctbGradeRaw;
+
+    /**
+     * Column of the raw value of {@link OsuBeatmapInfo#getManiaGrade()}, <code>-1</code> if it was not parsed. See
+     * {@link #getManiaGrade(int)}.
+     */
+    private final int[] maniaGradeRaw;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getLocalOffset()}
+     */
+    private final int[] localOffset;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getStackLeniency()}
+     */
+    private final float[] stackLeniency;
+
+    /**
+     * Column of the raw value of {@link OsuBeatmapInfo#getGameMode()}, <code>-1</code> if it was not parsed. See
+     * {@link #getGameMode(int)}.
+     */
+    private final int[] gameModeRaw;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getSource()}
+     */
+    private final String[] source;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getTags()}
+     */
+    private final String[] tags;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getOnlineOffset()}
+     */
+    private final int[] onlineOffset;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getFont()}
+     */
+    private final String[] font;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#isUnplayed()}
+     */
+    private final boolean[] unplayed;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getLastTimePlayed()}
+     */
+    private final long[] lastTimePlayed;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#isOsz2()}
+     */
+    private final boolean[] osz2;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getFolderName()}
+     */
+    private final String[] folderName;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getLastCheckedTime()}
+     */
+    private final long[] lastCheckedTime;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#isIgnoreBeatmapSounds()}
+     */
+    private final boolean[] ignoreBeatmapSounds;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#isIgnoreBeatmapSkin()}
+     */
+    private final boolean[] ignoreBeatmapSkin;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#isDisableStoryboard()}
+     */
+    private final boolean[] disableStoryboard;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#isDisableVideo()}
+     */
+    private final boolean[] disableVideo;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#isVisualOverride()}
+     */
+    private final boolean[] visualOverride;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getLastModificationTime2()}
+     */
+    private final long[] lastModificationTime2;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getManiaScrollSpeed()}
+     */
+    private final int[] maniaScrollSpeed;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getBpmMin()}
+     */
+    private final double[] bpmMin;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getBpmMax()}
+     */
+    private final double[] bpmMax;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#getBpm()}
+     */
+    private final double[] bpm;
+
+    /**
+     * Column of {@link OsuBeatmapInfo#isVariableBpm()}
+     */
+    private final boolean[] variableBpm;
+
+    private OsuDbTable(OsuDbReader reader) {
+        osuVersion = reader.getOsuVersion();
+        folderCount = reader.getFolderCount();
+        accountUnlocked = reader.isAccountUnlocked();
+        playerName = reader.getPlayerName();
+        int rowCount = reader.getBeatmapCount();
+        this.rowCount = rowCount;
+        artistName = new String[rowCount];
+        artistNameUnicode = new String[rowCount];
+        songTitle = new String[rowCount];
+        songTitleUnicode = new String[rowCount];
+        creatorName = new String[rowCount];
+        difficulty = new String[rowCount];
+        audioFileName = new String[rowCount];
+        md5BeatmapHash = new String[rowCount];
+        osuFileName = new String[rowCount];
+        rankedStatusRaw = new int[rowCount];
+        hitcircleCount = new int[rowCount];
+        sliderCount = new int[rowCount];
+        spinnerCount = new int[rowCount];
+        lastModificationTime = new long[rowCount];
+        approachRate = new float[rowCount];
+        circleSize = new float[rowCount];
+        hpDrain = new float[rowCount];
+        overallDifficulty = new float[rowCount];
+        sliderVelocity = new double[rowCount];
+        standardStarRating = new double[StarRating.COMBO_COUNT][rowCount];
+        taikoStarRating = new double[StarRating.COMBO_COUNT][rowCount];
+        ctbStarRating = new double[StarRating.COMBO_COUNT][rowCount];
+        maniaStarRating = new double[StarRating.COMBO_COUNT][rowCount];
+        drainTime = new long[rowCount];
+        totalTime = new long[rowCount];
+        audioPreviewStartTime = new long[rowCount];
+        timingPointBytes = new byte[rowCount][];
+        beatmapId = new long[rowCount];
+        beatmapSetId = new long[rowCount];
+        threadId = new long[rowCount];
+        standardGradeRaw = new int[rowCount];
+        taikoGradeRaw = new int[rowCount];
+        ctbGradeRaw = new int[rowCount];
+        maniaGradeRaw = new int[rowCount];
+        localOffset = new int[rowCount];
+        stackLeniency = new float[rowCount];
+        gameModeRaw = new int[rowCount];
+        source = new String[rowCount];
+        tags = new String[rowCount];
+        onlineOffset = new int[rowCount];
+        font = new String[rowCount];
+        unplayed = new boolean[rowCount];
+        lastTimePlayed = new long[rowCount];
+        osz2 = new boolean[rowCount];
+        folderName = new String[rowCount];
+        lastCheckedTime = new long[rowCount];
+        ignoreBeatmapSounds = new boolean[rowCount];
+        ignoreBeatmapSkin = new boolean[rowCount];
+        disableStoryboard = new boolean[rowCount];
+        disableVideo = new boolean[rowCount];
+        visualOverride = new boolean[rowCount];
+        lastModificationTime2 = new long[rowCount];
+        maniaScrollSpeed = new int[rowCount];
+        bpmMin = new double[rowCount];
+        bpmMax = new double[rowCount];
+        bpm = new double[rowCount];
+        variableBpm = new boolean[rowCount];
+    }
+
+    public static OsuDbTable parse(String filename) throws IOException {
+        try (FileInputStream fileInputStream = new FileInputStream(filename)) {
+            return parse(fileInputStream);
+        }
+    }
+
+    /**
+     * Parse the file by memory-mapping it, see {@link OsuDbFile#parse(Path)}
+     *
+     * @param path The osu!.db file
+     * @return The table
+     * @throws IOException on error
+     */
+    public static OsuDbTable parse(Path path) throws IOException {
+        try (OsuDbReader reader = OsuDbReader.open(path)) {
+            return parse(reader);
+        }
+    }
+
+    public static OsuDbTable parse(InputStream inputStream) throws IOException {
+        return parse(new OsuDbInputStream(inputStream));
+    }
+
+    public static OsuDbTable parse(OsuDbInputStream iStream) throws IOException {
+        return parse((OsuDbDataInput) iStream);
+    }
+
+    public static OsuDbTable parse(OsuDbDataInput iStream) throws IOException {
+        return parse(new OsuDbReader(iStream));
+    }
+
+    /**
+     * Fill the table with the beatmaps that have not been read from <code>reader</code> yet. The beatmaps are read one
+     * at a time, so at most one {@link OsuBeatmapInfo} is alive at any time while filling the table. If the reader has
+     * no {@link StringPool} yet, it gets a new one.
+     *
+     * @param reader The reader, positioned at the first beatmap
+     * @return The table
+     * @throws IOException on error
+     */
+    public static OsuDbTable parse(OsuDbReader reader) throws IOException {
+        if (reader.getBeatmapsRead() != 0) {
+            throw new IllegalStateException("reader already read " + reader.getBeatmapsRead() + " beatmaps");
+        }
+        if (reader.getStringPool() == null) {
+            reader.setStringPool(new StringPool());
+        }
+        OsuDbTable table = new OsuDbTable(reader);
+        for (int row = 0; reader.hasNextBeatmap(); ++row) {
+            table.setRow(row, reader.nextBeatmap());
+        }
+        return table;
+    }
+
+    private void setRow(int row, OsuBeatmapInfo beatmap) {
+        artistName[row] = beatmap.getArtistName();
+        artistNameUnicode[row] = beatmap.getArtistNameUnicode();
+        songTitle[row] = beatmap.getSongTitle();
+        songTitleUnicode[row] = beatmap.getSongTitleUnicode();
+        creatorName[row] = beatmap.getCreatorName();
+        difficulty[row] = beatmap.getDifficulty();
+        audioFileName[row] = beatmap.getAudioFileName();
+        md5BeatmapHash[row] = beatmap.getMd5BeatmapHash();
+        osuFileName[row] = beatmap.getOsuFileName();
+        rankedStatusRaw[row] = beatmap.getRankedStatusRaw();
+        hitcircleCount[row] = beatmap.getHitcircleCount();
+        sliderCount[row] = beatmap.getSliderCount();
+        spinnerCount[row] = beatmap.getSpinnerCount();
+        lastModificationTime[row] = beatmap.getLastModificationTime();
+        approachRate[row] = beatmap.getApproachRate();
+        circleSize[row] = beatmap.getCircleSize();
+        hpDrain[row] = beatmap.getHpDrain();
+        overallDifficulty[row] = beatmap.getOverallDifficulty();
+        sliderVelocity[row] = beatmap.getSliderVelocity();
+        setStarRating(row, 0, standardStarRating, beatmap.getStandardStarRating());
+        setStarRating(row, 1, taikoStarRating, beatmap.getTaikoStarRating());
+        setStarRating(row, 2, ctbStarRating, beatmap.getCtbStarRating());
+        setStarRating(row, 3, maniaStarRating, beatmap.getManiaStarRating());
+        drainTime[row] = beatmap.getDrainTime();
+        totalTime[row] = beatmap.getTotalTime();
+        audioPreviewStartTime[row] = beatmap.getAudioPreviewStartTime();
+        timingPointBytes[row] = beatmap.getTimingPointBytes();
+        beatmapId[row] = beatmap.getBeatmapId();
+        beatmapSetId[row] = beatmap.getBeatmapSetId();
+        threadId[row] = beatmap.getThreadId();
+        standardGradeRaw[row] = beatmap.getGradeRaw(0);
+        taikoGradeRaw[row] = beatmap.getGradeRaw(1);
+        ctbGradeRaw[row] = beatmap.getGradeRaw(2);
+        maniaGradeRaw[row] = beatmap.getGradeRaw(3);
+        localOffset[row] = beatmap.getLocalOffset();
+        stackLeniency[row] = beatmap.getStackLeniency();
+        gameModeRaw[row] = beatmap.getGameModeRaw();
+        source[row] = beatmap.getSource();
+        tags[row] = beatmap.getTags();
+        onlineOffset[row] = beatmap.getOnlineOffset();
+        font[row] = beatmap.getFont();
+        unplayed[row] = beatmap.isUnplayed();
+        lastTimePlayed[row] = beatmap.getLastTimePlayed();
+        osz2[row] = beatmap.isOsz2();
+        folderName[row] = beatmap.getFolderName();
+        lastCheckedTime[row] = beatmap.getLastCheckedTime();
+        ignoreBeatmapSounds[row] = beatmap.isIgnoreBeatmapSounds();
+        ignoreBeatmapSkin[row] = beatmap.isIgnoreBeatmapSkin();
+        disableStoryboard[row] = beatmap.isDisableStoryboard();
+        disableVideo[row] = beatmap.isDisableVideo();
+        visualOverride[row] = beatmap.isVisualOverride();
+        lastModificationTime2[row] = beatmap.getLastModificationTime2();
+        maniaScrollSpeed[row] = beatmap.getManiaScrollSpeed();
+        bpmMin[row] = beatmap.getBpmMin();
+        bpmMax[row] = beatmap.getBpmMax();
+        bpm[row] = beatmap.getBpm();
+        variableBpm[row] = beatmap.isVariableBpm();
+    }
+
+    private void setStarRating(int row, int gameMode, double[][] columns, StarRating starRating) {
+        for (int combo = 0; combo < StarRating.COMBO_COUNT; ++combo) {
+            columns[combo][row] = starRating == null ? Double.NaN : starRating.forComboIndex(combo);
+        }
+        if (starRating != null && !starRating.isComboRatingsOnly()) {
+            otherStarRatings.computeIfAbsent(row, r -> new StarRating[4])[gameMode] = starRating;
+        }
+    }
+
+    /**
+     * Column of {@link StarRating#forMods(long)} of {@link OsuBeatmapInfo#getStandardStarRating()}, <code>NaN</code>
+     * where there is no rating
+     *
+     * @param mods See {@link StarRating#forMods(long)}
+     * @return The column
+     * @throws IllegalArgumentException If an invalid mod-combo has been given
+     */
+    public double[] getStandardStarRatingColumn(long mods) throws IllegalArgumentException {
+        return standardStarRating[StarRating.comboIndexOf(mods)];
+    }
+
+    /**
+     * @see #getStandardStarRatingColumn(long)
+     */
+    public double[] getTaikoStarRatingColumn(long mods) throws IllegalArgumentException {
+        return taikoStarRating[StarRating.comboIndexOf(mods)];
+    }
+
+    /**
+     * @see #getStandardStarRatingColumn(long)
+     */
+    public double[] getCtbStarRatingColumn(long mods) throws IllegalArgumentException {
+        return ctbStarRating[StarRating.comboIndexOf(mods)];
+    }
+
+    /**
+     * @see #getStandardStarRatingColumn(long)
+     */
+    public double[] getManiaStarRatingColumn(long mods) throws IllegalArgumentException {
+        return maniaStarRating[StarRating.comboIndexOf(mods)];
+    }
+
+    /**
+     * The star ratings of a single row, for the row view
+     */
+    StarRating getStarRating(int row, int gameMode) {
+        StarRating[] other = otherStarRatings.get(row);
+        if (other != null && other[gameMode] != null) {
+            return other[gameMode];
+        }
+        double[][] columns = gameMode == 0 ? standardStarRating : gameMode == 1 ? taikoStarRating : gameMode == 2 ? ctbStarRating : maniaStarRating;
+        double[] ratings = new double[StarRating.COMBO_COUNT];
+        for (int combo = 0; combo < ratings.length; ++combo) {
+            ratings[combo] = columns[combo][row];
+        }
+        return StarRating.ofComboRatings(ratings);
+    }
+
+    /**
+     * @param row Index of the beatmap
+     * @return {@link OsuBeatmapInfo#getStandardGrade()} of that row
+     */
+    public OsuBeatmapInfo.Grade getStandardGrade(int row) {
+        return grade(standardGradeRaw[row]);
+    }
+
+    /**
+     * @param row Index of the beatmap
+     * @return {@link OsuBeatmapInfo#getTaikoGrade()} of that row
+     */
+    public OsuBeatmapInfo.Grade getTaikoGrade(int row) {
+        return grade(taikoGradeRaw[row]);
+    }
+
+    /**
+     * @param row Index of the beatmap
+     * @return {@link OsuBeatmapInfo#getCtbGrade()} of that row
+     */
+    public OsuBeatmapInfo.Grade getCtbGrade(int row) {
+        return grade(ctbGradeRaw[row]);
+    }
+
+    /**
+     * @param row Index of the beatmap
+     * @return {@link OsuBeatmapInfo#getManiaGrade()} of that row
+     */
+    public OsuBeatmapInfo.Grade getManiaGrade(int row) {
+        return grade(maniaGradeRaw[row]);
+    }
+
+    private static OsuBeatmapInfo.Grade grade(int raw) {
+        return raw < 0 ? null : OsuBeatmapInfo.Grade.valueOf(raw);
+    }
+
+    /**
+     * @param row Index of the beatmap
+     * @return {@link OsuBeatmapInfo#getGameMode()} of that row
+     */
+    public OsuBeatmapInfo.GameMode getGameMode(int row) {
+        int raw = gameModeRaw[row];
+        return raw < 0 ? null : OsuBeatmapInfo.GameMode.valueOf(raw);
+    }
+
+    /**
+     * Get a single row as {@link OsuBeatmapInfo}. The object is created on every call, its values are copied from the
+     * columns, the timing points are decoded on first use.
+     *
+     * @param row Index of the beatmap
+     * @return The beatmap
+     */
+    public OsuBeatmapInfo getRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("row: " + row + ", rowCount: " + rowCount);
+        }
+        return OsuBeatmapInfo.fromTable(this, row);
+    }
+
+    /**
+     * The timing points of a single row, see {@link OsuBeatmapInfo#getTimingPointTable()}
+     *
+     * @param row Index of the beatmap
+     * @return The timing points, or <code>null</code> if they were not parsed
+     */
+    public TimingPointTable getTimingPointTable(int row) {
+        byte[] bytes = timingPointBytes[row];
+        return bytes == null ? null : new TimingPointTable(bytes);
+    }
+}
@@ -0,0 +1,191 @@
+package com.github.omkelderman.osudbparser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps an {@link OsuDbFile} up to date with the osu!.db file on disk. The file is watched with a {@link WatchService},
+ * once it changes it is parsed again (see {@link OsuDbFile#parseIncremental(Path, OsuDbFile)}) and the listeners get
+ * the {@link OsuDbDiff} between the old and new version.
+ * <p>
+ * osu! writes the file in a burst of writes, so the file is only parsed once it has not changed for the debounce time.
+ * The watching is done on a separate (daemon) thread, the listeners are called on that thread. An exception thrown by a
+ * listener is passed to the uncaught exception handler of that thread, the other listeners are still called and the
+ * file is still watched.
+ */
+public class OsuDbWatcher implements Closeable {
+    /**
+     * Default debounce time in milliseconds
+     */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+
+    private final Path path;
+    private final long debounceMillis;
+    private final WatchService watchService;
+    private final Thread thread;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile OsuDbFile current;
+
+    private OsuDbWatcher(Path path, long debounceMillis) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.debounceMillis = debounceMillis;
+        current = parse(null);
+        watchService = this.path.getFileSystem().newWatchService();
+        try {
+            this.path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        thread = new Thread(this::run, "osu!.db watcher");
+        thread.setDaemon(true);
+    }
+
+    public static OsuDbWatcher watch(Path path) throws IOException {
+        return watch(path, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Parse the file and start watching it
+     *
+     * @param path           The osu!.db file
+     * @param debounceMillis How long the file must be unchanged before it is parsed again
+     * @return The watcher
+     * @throws IOException on error while parsing the file or starting to watch it
+     */
+    public static OsuDbWatcher watch(Path path, long debounceMillis) throws IOException {
+        OsuDbWatcher watcher = new OsuDbWatcher(path, debounceMillis);
+        watcher.thread.start();
+        return watcher;
+    }
+
+    /**
+     * @return The latest successfully parsed version of the file
+     */
+    public OsuDbFile getCurrent() {
+        return current;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private OsuDbFile parse(OsuDbFile previous) throws IOException {
+        // read into memory instead of memory-mapping, a mapped file can't be replaced by osu! on Windows
+        return OsuDbFile.parseIncremental(ByteBuffer.wrap(Files.readAllBytes(path)), previous);
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                boolean changed = isFileChanged(watchService.take());
+                // wait until the file is quiet for the debounce time
+                WatchKey key;
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= isFileChanged(key);
+                }
+                if (changed) {
+                    update();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private boolean isFileChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // on overflow events were lost, so the file might have changed
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || path.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void update() {
+        OsuDbFile previous = current;
+        OsuDbFile next;
+        try {
+            next = parse(previous);
+        } catch (IOException | RuntimeException e) {
+            // most likely osu! is not done writing yet, the next write will trigger a new attempt
+            // a half written file can also hold any garbage, so runtime exceptions are expected too
+            for (Listener listener : listeners) {
+                notify(listener, l -> l.onError(e));
+            }
+            return;
+        }
+        current = next;
+        OsuDbDiff diff = OsuDbDiff.between(previous, next);
+        if (!diff.isEmpty()) {
+            for (Listener listener : listeners) {
+                notify(listener, l -> l.onChange(diff));
+            }
+        }
+    }
+
+    private void notify(Listener listener, Consumer<Listener> call) {
+        try {
+            call.accept(listener);
+        } catch (RuntimeException e) {
+            // don't let one listener stop the others or the watching
+            Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+            handler.uncaughtException(thread, e);
+        }
+    }
+
+    /**
+     * Stop watching the file
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+        if (Thread.currentThread() != thread) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Gets notified when the file changes
+     */
+    public interface Listener {
+        /**
+         * The file has been parsed again and beatmaps were added, removed or modified
+         *
+         * @param diff The changes, {@link OsuDbDiff#getCurrent()} is the new version of the file
+         */
+        void onChange(OsuDbDiff diff);
+
+        /**
+         * The file changed but could not be parsed, the previous version is kept
+         *
+         * @param e The error, an {@link IOException} or a {@link RuntimeException} thrown while parsing a corrupt file
+         */
+        default void onError(Exception e) {
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.omkelderman.osudbparser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The lookups of {@link OsuDbFile} by beatmap id, beatmap set id and folder name. All of them are built at once, in a
+ * single pass over the beatmaps.
+ */
+final class SecondaryIndexes {
+    private static final int[] NONE = new int[0];
+
+    private final LongIndex byBeatmapId;
+    private final LongIndex byBeatmapSetId;
+    private final Map<String, int[]> byFolderName;
+
+    private SecondaryIndexes(LongIndex byBeatmapId, LongIndex byBeatmapSetId, Map<String, int[]> byFolderName) {
+        this.byBeatmapId = byBeatmapId;
+        this.byBeatmapSetId = byBeatmapSetId;
+        this.byFolderName = byFolderName;
+    }
+
+    static SecondaryIndexes build(OsuBeatmapInfo[] beatmaps) {
+        long[] beatmapIds = new long[beatmaps.length];
+        long[] beatmapSetIds = new long[beatmaps.length];
+        Map<String, Integer> folderCounts = new HashMap<>();
+        for (int i = 0; i < beatmaps.length; ++i) {
+            beatmapIds[i] = beatmaps[i].getBeatmapId();
+            beatmapSetIds[i] = beatmaps[i].getBeatmapSetId();
+            if (beatmaps[i].getFolderName() != null) {
+                folderCounts.merge(beatmaps[i].getFolderName(), 1, Integer::sum);
+            }
+        }
+
+        Map<String, int[]> byFolderName = new HashMap<>((int) (folderCounts.size() / 0.75F) + 1);
+        for (int i = 0; i < beatmaps.length; ++i) {
+            String folderName = beatmaps[i].getFolderName();
+            if (folderName != null) {
+                int[] indexes = byFolderName.computeIfAbsent(folderName, name -> new int[folderCounts.get(name)]);
+                // folderCounts now counts down the indexes still to fill, so they are filled in file order
+                int remaining = folderCounts.merge(folderName, -1, Integer::sum);
+                indexes[indexes.length - 1 - remaining] = i;
+            }
+        }
+
+        // unsubmitted beatmaps have id 0, they can't be found by it
+        return new SecondaryIndexes(LongIndex.build(beatmapIds, 0), LongIndex.build(beatmapSetIds, 0), byFolderName);
+    }
+
+    int byBeatmapId(long beatmapId) {
+        return byBeatmapId.first(beatmapId);
+    }
+
+    int[] byBeatmapSetId(long beatmapSetId) {
+        return byBeatmapSetId.all(beatmapSetId);
+    }
+
+    int[] byFolderName(String folderName) {
+        int[] indexes = byFolderName.get(folderName);
+        return indexes == null ? NONE : indexes;
+    }
+}
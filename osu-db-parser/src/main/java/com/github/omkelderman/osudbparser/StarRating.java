@@ -0,0 +1,293 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbDataInput;
+import com.github.omkelderman.osudbparser.io.OsuDbOutputStream;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class representing the star-ratings for a beatmap. There are multiple star-ratings available for each beatmap since
+ * it can depend on which mod or mods you choose. The only mods that affect the star-rating (as fair as I have seen)
+ * are:
+ * <ul>
+ * <li>Easy</li>
+ * <li>HardRock</li>
+ * <li>HalfTime</li>
+ * <li>DoubleTime</li>
+ * </ul>
+ * Because <code>Easy</code> and <code>HardRock</code> cannot be applied at the same time, the same is true for
+ * <code>HalfTime</code> and <code>DoubleTime</code>, not every combination of these mods exist. In the end there are
+ * nine combinations that are valid (as of known at moment of writing this):
+ * <ul>
+ * <li>No mods</li>
+ * <li>Easy</li>
+ * <li>HardRock</li>
+ * <li>HalfTime</li>
+ * <li>DoubleTime</li>
+ * <li>Easy + HalfTime</li>
+ * <li>Easy + DoubleTime</li>
+ * <li>HardRock + HalfTime</li>
+ * <li>HardRock + DoubleTime</li>
+ * </ul>
+ */
+public class StarRating {
+    // as listed on https://osu.ppy.sh/wiki/Osr_(file_format): Easy | HardRock | HalfTime | DoubleTime
+    private static final long AFFECTED_MODS_BITS = (2 | 16 | 256 | 64);
+    private static final long EZ_HR_BITS = (2 | 16);
+    private static final long HT_DT_BITS = (256 | 64);
+
+    /**
+     * Size in bytes of a single rating in the file: 0x08, mod combo, 0x0D, rating
+     */
+    static final int ENCODED_ENTRY_SIZE = 1 + 4 + 1 + 8;
+
+    private static final long EASY = 2;
+    private static final long HARD_ROCK = 16;
+    private static final long DOUBLE_TIME = 64;
+    private static final long HALF_TIME = 256;
+
+    /**
+     * Amount of valid mod combinations, see {@link #comboIndex(long)}
+     */
+    static final int COMBO_COUNT = 9;
+
+    // the mods of each combination, indexed by comboIndex
+    private static final long[] COMBO_MODS = {
+            0, DOUBLE_TIME, HALF_TIME,
+            EASY, EASY | DOUBLE_TIME, EASY | HALF_TIME,
+            HARD_ROCK, HARD_ROCK | DOUBLE_TIME, HARD_ROCK | HALF_TIME
+    };
+
+    /**
+     * Rating for each valid mod combination, indexed by {@link #comboIndex(long)}. <code>NaN</code> if the file did
+     * not contain a rating for that combination.
+     */
+    private final double[] ratings = new double[COMBO_COUNT];
+
+    /**
+     * Ratings for mod combinations that include other mods than the four above. I have never seen osu! write those,
+     * but just in case they show up, they are not thrown away. <code>null</code> if there are none.
+     */
+    private Map<Long, Double> otherRatings;
+
+    // only kept if the ratings in the file are not in the order osu! writes them (or contain duplicates or NaN), so
+    // they can be written back exactly as they were read
+    private long[] fileMods;
+    private double[] fileRatings;
+
+    private StarRating() {
+        Arrays.fill(ratings, Double.NaN);
+    }
+
+    public static StarRating parse(OsuDbDataInput iStream) throws IOException {
+        long amount = iStream.readUInt32();
+        if (amount == 0) {
+            return null;
+        }
+
+        if (amount > Integer.MAX_VALUE / ENCODED_ENTRY_SIZE) {
+            throw new IOException("amount to much to store the data...");
+        }
+
+        StarRating starRating = new StarRating();
+        int lastIndex = -1;
+        for (int i = 0; i < (int) amount; ++i) {
+            iStream.readExpectedUInt8(0x08);
+            long modCombo = iStream.readUInt32();
+            iStream.readExpectedUInt8(0x0D);
+            double rating = iStream.readDouble();
+            boolean valid = isValidCombo(modCombo);
+            int index = valid ? comboIndex(modCombo) : -1;
+            if (starRating.fileMods == null && (index <= lastIndex || Double.isNaN(rating))) {
+                starRating.keepFileOrder((int) amount, lastIndex);
+            }
+            if (starRating.fileMods != null) {
+                starRating.fileMods[i] = modCombo;
+                starRating.fileRatings[i] = rating;
+            }
+
+            if (valid) {
+                starRating.ratings[index] = rating;
+                lastIndex = index;
+            } else {
+                if (starRating.otherRatings == null) {
+                    starRating.otherRatings = new HashMap<>();
+                }
+                starRating.otherRatings.put(modCombo, rating);
+            }
+        }
+        return starRating;
+    }
+
+    /**
+     * Start keeping the ratings in the order of the file. Up to now the ratings were in the order osu! writes them, so
+     * the ones read so far are exactly the ratings up to <code>lastIndex</code>.
+     */
+    private void keepFileOrder(int amount, int lastIndex) {
+        fileMods = new long[amount];
+        fileRatings = new double[amount];
+        int entry = 0;
+        for (int i = 0; i <= lastIndex; ++i) {
+            if (!Double.isNaN(ratings[i])) {
+                fileMods[entry] = COMBO_MODS[i];
+                fileRatings[entry] = ratings[i];
+                ++entry;
+            }
+        }
+    }
+
+    /**
+     * Write the star ratings in the format of the file, the counterpart of {@link #parse(OsuDbDataInput)}
+     *
+     * @param starRating The star ratings, or <code>null</code> for none
+     * @param out        The output
+     * @throws IOException on error
+     */
+    static void write(StarRating starRating, OsuDbOutputStream out) throws IOException {
+        if (starRating == null) {
+            out.writeUInt32(0);
+        } else if (starRating.fileMods != null) {
+            out.writeUInt32(starRating.fileMods.length);
+            for (int i = 0; i < starRating.fileMods.length; ++i) {
+                writeEntry(out, starRating.fileMods[i], starRating.fileRatings[i]);
+            }
+        } else {
+            int amount = 0;
+            for (double rating : starRating.ratings) {
+                if (!Double.isNaN(rating)) {
+                    ++amount;
+                }
+            }
+            out.writeUInt32(amount);
+            for (int i = 0; i < COMBO_COUNT; ++i) {
+                if (!Double.isNaN(starRating.ratings[i])) {
+                    writeEntry(out, COMBO_MODS[i], starRating.ratings[i]);
+                }
+            }
+        }
+    }
+
+    private static void writeEntry(OsuDbOutputStream out, long mods, double rating) throws IOException {
+        out.writeUInt8(0x08);
+        out.writeUInt32(mods);
+        out.writeUInt8(0x0D);
+        out.writeDouble(rating);
+    }
+
+    private static boolean isValidCombo(long mods) {
+        return (mods & ~AFFECTED_MODS_BITS) == 0
+                && (mods & EZ_HR_BITS) != EZ_HR_BITS
+                && (mods & HT_DT_BITS) != HT_DT_BITS;
+    }
+
+    /**
+     * Compact index of a valid mod combination: <code>3 * (none, EZ, HR) + (none, DT, HT)</code>. This happens to be
+     * the order in which osu! writes the ratings.
+     *
+     * @param mods A valid mod combination of only {@link #AFFECTED_MODS_BITS}
+     * @return Index between <code>0</code> and {@link #COMBO_COUNT} (exclusive)
+     */
+    static int comboIndex(long mods) {
+        int ezHr = (mods & EASY) != 0 ? 1 : (mods & HARD_ROCK) != 0 ? 2 : 0;
+        int dtHt = (mods & DOUBLE_TIME) != 0 ? 1 : (mods & HALF_TIME) != 0 ? 2 : 0;
+        return ezHr * 3 + dtHt;
+    }
+
+    /**
+     * Shortcut for {@link #forMods(long)} called with <code>0L</code>
+     *
+     * @return Star rating with no mods
+     */
+    public double forNoMod() {
+        return forMods(0L);
+    }
+
+    /**
+     * Get the star rating for the supplied mod combination
+     *
+     * @param mods A bitset of mods as specified in the osu!api documentation. Mods that do not affect the star rating
+     *             are ignored.
+     * @return Star rating for that mod combination, or <code>NaN</code> if the file does not contain a rating for
+     * that mod combination
+     * @throws IllegalArgumentException If an invalid mod-combo has been given. For example <code>Easy</code> and
+     *                                  <code>HardRock</code> enabled at the same time.
+     */
+    public double forMods(long mods) throws IllegalArgumentException {
+        // if this is NaN either the file is corrupted or something in the format of that file has changed....
+        return ratings[comboIndexOf(mods)];
+    }
+
+    /**
+     * {@link #comboIndex(long)} of any mods, the mods that do not affect the star rating are ignored
+     *
+     * @throws IllegalArgumentException If an invalid mod-combo has been given
+     */
+    static int comboIndexOf(long mods) throws IllegalArgumentException {
+        mods = mods & AFFECTED_MODS_BITS;
+        if (((mods & EZ_HR_BITS) == EZ_HR_BITS) || ((mods & HT_DT_BITS) == HT_DT_BITS)) {
+            // illegal mod-combination detected
+            throw new IllegalArgumentException("invalid mods");
+        }
+        return comboIndex(mods);
+    }
+
+    /**
+     * @param index See {@link #comboIndex(long)}
+     * @return The rating for that combination, <code>NaN</code> if there is none
+     */
+    double forComboIndex(int index) {
+        return ratings[index];
+    }
+
+    /**
+     * @return <code>true</code> if the ratings per combination are all there is to this star rating, so
+     * {@link #ofComboRatings(double[])} gives it back. Only not if the file had other mods, or had the ratings in an
+     * other order than osu! writes them.
+     */
+    boolean isComboRatingsOnly() {
+        return otherRatings == null && fileMods == null;
+    }
+
+    /**
+     * @param ratings Rating per combination, indexed by {@link #comboIndex(long)}, <code>NaN</code> for none
+     * @return The star rating, or <code>null</code> if all ratings are <code>NaN</code> (like a file without ratings)
+     */
+    static StarRating ofComboRatings(double[] ratings) {
+        StarRating starRating = new StarRating();
+        boolean any = false;
+        for (int i = 0; i < COMBO_COUNT; ++i) {
+            starRating.ratings[i] = ratings[i];
+            any |= !Double.isNaN(ratings[i]);
+        }
+        return any ? starRating : null;
+    }
+
+    /**
+     * Get the star rating for the supplied mods
+     * <p>
+     * Each element in the <code>modArray</code> is the bit-offset of that mod as specified in the osu!api
+     * documentation.
+     * <ul>
+     * <li>Easy (2 or 0b10) = 1</li>
+     * <li>HardRock (16 or 0b10000) = 4</li>
+     * <li>DoubleTime (64 or 0b 1000000) = 6</li>
+     * <li>HalfTime (256 or 0b100000000) = 8	</li>
+     * </ul>
+     *
+     * @param modArray An array of mods, where each element is is a number corresponding to a mod according
+     *                 to the above information
+     * @return Star rating for that mod combination
+     * @throws IllegalArgumentException If an invalid mod-combo has been given. For example <code>Easy</code> and
+     *                                  <code>HardRock</code> enabled at the same time.
+     */
+    public double forModArray(int... modArray) throws IllegalArgumentException {
+        long mods = 0L;
+        for (int mod : modArray) {
+            mods |= (1 << mod);
+        }
+        return forMods(mods);
+    }
+}
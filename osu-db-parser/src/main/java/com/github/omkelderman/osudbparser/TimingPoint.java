@@ -0,0 +1,345 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbDataInput;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+public class TimingPoint {
+    /**
+     * Size in bytes of a single timing point in the file: msPerBeat, offset, not inherited
+     */
+    static final int ENCODED_SIZE = 8 + 8 + 1;
+
+    // different bpms that BpmStatistics sums the durations of in its arrays, the rest is summed in a map
+    private static final int BPM_SLOTS = 32;
+
+    private static final ThreadLocal<BpmStatistics> BPM_STATISTICS = ThreadLocal.withInitial(BpmStatistics::new);
+
+    /**
+     * milliseconds per beat
+     */
+    private double msPerBeat;
+
+    /**
+     * Offset in milliseconds
+     */
+    private double offset;
+
+    /**
+     * is it an inherited Timing Point?
+     */
+    private boolean inherited;
+
+    // calculated non-provided fields:
+
+    /**
+     * Beats per minute
+     */
+    private double bpm;
+
+    private TimingPoint() {
+    }
+
+    public static TimingPoint[] parseArray(OsuDbDataInput iStream) throws IOException {
+        long timingPointCount = iStream.readUInt32();
+        if (timingPointCount > Integer.MAX_VALUE) {
+            throw new IOException("timingPointCount to much to store the data...");
+        }
+        TimingPoint[] timingPoints = new TimingPoint[(int) timingPointCount];
+        for (int i = 0; i < timingPointCount; ++i) {
+            timingPoints[i] = parse(iStream);
+        }
+        return timingPoints;
+    }
+
+    /**
+     * Read the timing points without decoding them, see {@link #decodeArray(byte[])}
+     *
+     * @param iStream The input
+     * @return The timing points as they are stored in the file, without the count
+     * @throws IOException on error
+     */
+    static byte[] readEncodedArray(OsuDbDataInput iStream) throws IOException {
+        long timingPointCount = iStream.readUInt32();
+        if (timingPointCount * ENCODED_SIZE > Integer.MAX_VALUE) {
+            throw new IOException("timingPointCount to much to store the data...");
+        }
+        byte[] bytes = new byte[(int) timingPointCount * ENCODED_SIZE];
+        iStream.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Decode timing points that were read with {@link #readEncodedArray(OsuDbDataInput)}
+     *
+     * @param bytes The timing points as they are stored in the file, without the count
+     * @return Array of timing points
+     */
+    static TimingPoint[] decodeArray(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        TimingPoint[] timingPoints = new TimingPoint[bytes.length / ENCODED_SIZE];
+        for (int i = 0; i < timingPoints.length; ++i) {
+            timingPoints[i] = decode(buffer.getDouble(), buffer.getDouble(), buffer.get() == 0);
+        }
+        return timingPoints;
+    }
+
+    static TimingPoint decode(double msPerBeat, double offset, boolean inherited) {
+        TimingPoint timingPoint = new TimingPoint();
+        timingPoint.msPerBeat = msPerBeat;
+        timingPoint.offset = offset;
+        timingPoint.inherited = inherited;
+        timingPoint.bpm = 60000 / msPerBeat;
+        return timingPoint;
+    }
+
+    public static TimingPoint parse(OsuDbDataInput iStream) throws IOException {
+        TimingPoint timingPoint = new TimingPoint();
+        timingPoint.msPerBeat = iStream.readDouble();
+        timingPoint.offset = iStream.readDouble();
+        // i think it's a bit silly to store a "is not" value
+        timingPoint.inherited = !iStream.readBoolean();
+
+        // calculate non-provided fields.
+        timingPoint.bpm = 60000 / timingPoint.msPerBeat;
+        return timingPoint;
+    }
+
+    public static double calcBpmMax(TimingPoint[] timingPoints) {
+        return calcBpmMax(OBJECTS, timingPoints);
+    }
+
+    public static double calcBpmMin(TimingPoint[] timingPoints) {
+        return calcBpmMin(OBJECTS, timingPoints);
+    }
+
+    public static double calcMainBpm(TimingPoint[] timingPoints, long beatmapTotalTime) {
+        return calcMainBpm(OBJECTS, timingPoints, beatmapTotalTime);
+    }
+
+    static <T> double calcBpmMax(Layout<T> layout, T timingPoints) {
+        double max = Double.NaN;
+        for (int i = 0; i < layout.size(timingPoints); ++i) {
+            if (!layout.isInherited(timingPoints, i) && (Double.isNaN(max) || Double.compare(layout.bpm(timingPoints, i), max) > 0)) {
+                max = layout.bpm(timingPoints, i);
+            }
+        }
+        return Double.isNaN(max) ? 0D : max;
+    }
+
+    static <T> double calcBpmMin(Layout<T> layout, T timingPoints) {
+        double min = Double.NaN;
+        for (int i = 0; i < layout.size(timingPoints); ++i) {
+            if (!layout.isInherited(timingPoints, i) && (Double.isNaN(min) || Double.compare(layout.bpm(timingPoints, i), min) < 0)) {
+                min = layout.bpm(timingPoints, i);
+            }
+        }
+        return Double.isNaN(min) ? 0D : min;
+    }
+
+    static <T> double calcMainBpm(Layout<T> layout, T timingPoints, long beatmapTotalTime) {
+        return bpmStatistics(layout, timingPoints, beatmapTotalTime).getMainBpm();
+    }
+
+    /**
+     * Calculate the min, max and main bpm together, in a single pass over the timing points. The result is reused by
+     * the next calculation on the same thread, so read it right away.
+     *
+     * @return The statistics
+     */
+    static <T> BpmStatistics bpmStatistics(Layout<T> layout, T timingPoints, long beatmapTotalTime) {
+        BpmStatistics statistics = BPM_STATISTICS.get();
+        statistics.calculate(layout, timingPoints, beatmapTotalTime);
+        return statistics;
+    }
+
+    /**
+     * Min, max and main bpm of the timing points of a beatmap, see {@link #bpmStatistics(Layout, Object, long)}. The
+     * main bpm is the bpm that is on for the longest time. Every not inherited timing point is on from its offset until
+     * the next one, the last one until the end of the beatmap. On a tie the bpm that comes first wins.
+     * <p>
+     * The durations of the first {@link #BPM_SLOTS} different bpms are summed in fixed arrays, so a calculation
+     * allocates nothing. Only the rare beatmaps with more different bpms sum the remaining ones in a map.
+     */
+    static final class BpmStatistics {
+        /**
+         * Lowest bpm, <code>0</code> if there are no not inherited timing points
+         */
+        @Getter
+        private double bpmMin;
+
+        /**
+         * Highest bpm, <code>0</code> if there are no not inherited timing points
+         */
+        @Getter
+        private double bpmMax;
+
+        /**
+         * The bpm that is on for the longest time, <code>0</code> if there are no not inherited timing points
+         */
+        @Getter
+        private double mainBpm;
+
+        // the different bpms and their summed durations, in order of their first timing point
+        private final double[] bpms = new double[BPM_SLOTS];
+        private final double[] durations = new double[BPM_SLOTS];
+        private int bpmCount;
+        // bpm => duration for the bpms after the first BPM_SLOTS, only during a calculation
+        private Map<Double, Double> spilled;
+
+        private BpmStatistics() {
+        }
+
+        private <T> void calculate(Layout<T> layout, T timingPoints, long beatmapTotalTime) {
+            bpmCount = 0;
+            double min = Double.NaN;
+            double max = Double.NaN;
+            int size = layout.size(timingPoints);
+            int previous = -1;
+            double previousBpm = 0D;
+            // i == size is the end of the beatmap
+            for (int i = 0; i <= size; ++i) {
+                if (i < size && layout.isInherited(timingPoints, i)) {
+                    continue;
+                }
+                if (previous >= 0) {
+                    double end = i < size ? layout.offset(timingPoints, i) : beatmapTotalTime;
+                    addDuration(previousBpm, end - layout.offset(timingPoints, previous));
+                }
+                if (i < size) {
+                    previousBpm = layout.bpm(timingPoints, i);
+                    if (Double.isNaN(min) || Double.compare(previousBpm, min) < 0) {
+                        min = previousBpm;
+                    }
+                    if (Double.isNaN(max) || Double.compare(previousBpm, max) > 0) {
+                        max = previousBpm;
+                    }
+                }
+                previous = i;
+            }
+            bpmMin = Double.isNaN(min) ? 0D : min;
+            bpmMax = Double.isNaN(max) ? 0D : max;
+
+            mainBpm = 0D;
+            double mainDuration = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < bpmCount; ++i) {
+                if (durations[i] > mainDuration) {
+                    mainBpm = bpms[i];
+                    mainDuration = durations[i];
+                }
+            }
+            if (spilled != null) {
+                for (Map.Entry<Double, Double> entry : spilled.entrySet()) {
+                    if (entry.getValue() > mainDuration) {
+                        mainBpm = entry.getKey();
+                        mainDuration = entry.getValue();
+                    }
+                }
+                spilled = null;
+            }
+        }
+
+        private void addDuration(double bpm, double duration) {
+            for (int i = bpmCount - 1; i >= 0; --i) {
+                if (Double.compare(bpms[i], bpm) == 0) {
+                    durations[i] += duration;
+                    return;
+                }
+            }
+            if (bpmCount < BPM_SLOTS) {
+                bpms[bpmCount] = bpm;
+                durations[bpmCount] = duration;
+                ++bpmCount;
+                return;
+            }
+            if (spilled == null) {
+                spilled = new LinkedHashMap<>();
+            }
+            spilled.merge(bpm, duration, Double::sum);
+        }
+    }
+
+    /**
+     * Access to the timing points of a beatmap, no matter how they are stored. The implementations are stateless, so the
+     * calculations don't allocate anything.
+     *
+     * @param <T> What the timing points are stored in
+     */
+    interface Layout<T> {
+        int size(T timingPoints);
+
+        double offset(T timingPoints, int index);
+
+        boolean isInherited(T timingPoints, int index);
+
+        double msPerBeat(T timingPoints, int index);
+
+        double bpm(T timingPoints, int index);
+    }
+
+    /**
+     * Timing points as objects
+     */
+    static final Layout<TimingPoint[]> OBJECTS = new Layout<TimingPoint[]>() {
+        @Override
+        public int size(TimingPoint[] timingPoints) {
+            return timingPoints.length;
+        }
+
+        @Override
+        public double offset(TimingPoint[] timingPoints, int index) {
+            return timingPoints[index].offset;
+        }
+
+        @Override
+        public boolean isInherited(TimingPoint[] timingPoints, int index) {
+            return timingPoints[index].inherited;
+        }
+
+        @Override
+        public double msPerBeat(TimingPoint[] timingPoints, int index) {
+            return timingPoints[index].msPerBeat;
+        }
+
+        @Override
+        public double bpm(TimingPoint[] timingPoints, int index) {
+            return timingPoints[index].bpm;
+        }
+    };
+
+    /**
+     * Timing points as they are stored in the file
+     */
+    static final Layout<TimingPointTable> TABLE = new Layout<TimingPointTable>() {
+        @Override
+        public int size(TimingPointTable timingPoints) {
+            return timingPoints.size();
+        }
+
+        @Override
+        public double offset(TimingPointTable timingPoints, int index) {
+            return timingPoints.getOffset(index);
+        }
+
+        @Override
+        public boolean isInherited(TimingPointTable timingPoints, int index) {
+            return timingPoints.isInherited(index);
+        }
+
+        @Override
+        public double msPerBeat(TimingPointTable timingPoints, int index) {
+            return timingPoints.getMsPerBeat(index);
+        }
+
+        @Override
+        public double bpm(TimingPointTable timingPoints, int index) {
+            return timingPoints.getBpm(index);
+        }
+    };
+}
@@ -0,0 +1,114 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbDataInput;
+
+import java.io.IOException;
+
+/**
+ * Alternative to an array of {@link TimingPoint} objects: the timing points of a beatmap packed in a single byte array,
+ * in the same 17 byte layout as in the file (msPerBeat, offset, not inherited). The values are read by index, so
+ * scanning the timing points creates no objects, and each timing point takes 17 bytes instead of an object of its own
+ * (with the calculated bpm) plus the reference to it.
+ */
+public final class TimingPointTable {
+    private final byte[] bytes;
+
+    TimingPointTable(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public static TimingPointTable parse(OsuDbDataInput iStream) throws IOException {
+        return new TimingPointTable(TimingPoint.readEncodedArray(iStream));
+    }
+
+    /**
+     * @return Amount of timing points
+     */
+    public int size() {
+        return bytes.length / TimingPoint.ENCODED_SIZE;
+    }
+
+    /**
+     * @param index Index of the timing point
+     * @return milliseconds per beat
+     */
+    public double getMsPerBeat(int index) {
+        return Double.longBitsToDouble(readLong(position(index)));
+    }
+
+    /**
+     * @param index Index of the timing point
+     * @return Offset in milliseconds
+     */
+    public double getOffset(int index) {
+        return Double.longBitsToDouble(readLong(position(index) + 8));
+    }
+
+    /**
+     * @param index Index of the timing point
+     * @return is it an inherited Timing Point?
+     */
+    public boolean isInherited(int index) {
+        return bytes[position(index) + 16] == 0;
+    }
+
+    /**
+     * @param index Index of the timing point
+     * @return Beats per minute, calculated from {@link #getMsPerBeat(int)} on every call
+     */
+    public double getBpm(int index) {
+        return 60000 / getMsPerBeat(index);
+    }
+
+    /**
+     * @param index Index of the timing point
+     * @return The timing point as a new {@link TimingPoint}
+     */
+    public TimingPoint get(int index) {
+        return TimingPoint.decode(getMsPerBeat(index), getOffset(index), isInherited(index));
+    }
+
+    /**
+     * @return All timing points as new {@link TimingPoint} objects
+     */
+    public TimingPoint[] toArray() {
+        return TimingPoint.decodeArray(bytes);
+    }
+
+    /**
+     * @see TimingPoint#calcBpmMin(TimingPoint[])
+     */
+    public double calcBpmMin() {
+        return TimingPoint.calcBpmMin(TimingPoint.TABLE, this);
+    }
+
+    /**
+     * @see TimingPoint#calcBpmMax(TimingPoint[])
+     */
+    public double calcBpmMax() {
+        return TimingPoint.calcBpmMax(TimingPoint.TABLE, this);
+    }
+
+    /**
+     * @see TimingPoint#calcMainBpm(TimingPoint[], long)
+     */
+    public double calcMainBpm(long beatmapTotalTime) {
+        return TimingPoint.calcMainBpm(TimingPoint.TABLE, this, beatmapTotalTime);
+    }
+
+    private int position(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size());
+        }
+        return index * TimingPoint.ENCODED_SIZE;
+    }
+
+    // little-endian, like the rest of the file
+    private long readLong(int position) {
+        long value = 0;
+        for (int i = 7; i >= 0; --i) {
+            value = (value << 8) | (bytes[position + i] & 0xFFL);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,180 @@
+package com.github.omkelderman.osudbparser;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The timing points of a beatmap as a timeline, to look up what is going on at a given time without scanning all
+ * timing points. Every lookup is a binary search over the offsets, the beat position uses the amount of beats before
+ * every not inherited timing point, counted once when the timeline is built.
+ * <p>
+ * Build it once per beatmap and keep it, building it is linear in the amount of timing points. Timing points with the
+ * same offset keep their order, so an inherited timing point right after a not inherited one on the same offset is
+ * active from that offset on.
+ */
+public final class TimingPointTimeline {
+    /**
+     * Offset of every timing point, sorted
+     */
+    private final double[] offsets;
+
+    /**
+     * Index (in the timing points the timeline was built from) of every timing point, in the order of {@link #offsets}
+     */
+    private final int[] indexes;
+
+    /**
+     * Whether every timing point is inherited, in the order of {@link #offsets}
+     */
+    private final boolean[] inherited;
+
+    /**
+     * Offset, milliseconds per beat and index of every not inherited timing point, in the order of {@link #offsets}
+     */
+    private final double[] uninheritedOffsets;
+    private final double[] uninheritedMsPerBeat;
+    private final int[] uninheritedIndexes;
+
+    /**
+     * Amount of beats from the first not inherited timing point until every not inherited timing point
+     */
+    private final double[] beats;
+
+    private TimingPointTimeline(double[] offsets, int[] indexes, boolean[] inherited, double[] uninheritedOffsets, double[] uninheritedMsPerBeat, int[] uninheritedIndexes) {
+        this.offsets = offsets;
+        this.indexes = indexes;
+        this.inherited = inherited;
+        this.uninheritedOffsets = uninheritedOffsets;
+        this.uninheritedMsPerBeat = uninheritedMsPerBeat;
+        this.uninheritedIndexes = uninheritedIndexes;
+
+        beats = new double[uninheritedOffsets.length];
+        for (int i = 1; i < beats.length; ++i) {
+            beats[i] = beats[i - 1] + (uninheritedOffsets[i] - uninheritedOffsets[i - 1]) / uninheritedMsPerBeat[i - 1];
+        }
+    }
+
+    public static TimingPointTimeline build(TimingPoint[] timingPoints) {
+        return build(TimingPoint.OBJECTS, timingPoints);
+    }
+
+    public static TimingPointTimeline build(TimingPointTable timingPoints) {
+        return build(TimingPoint.TABLE, timingPoints);
+    }
+
+    private static <T> TimingPointTimeline build(TimingPoint.Layout<T> layout, T timingPoints) {
+        int size = layout.size(timingPoints);
+        int[] indexes = new int[size];
+        boolean sorted = true;
+        for (int i = 0; i < size; ++i) {
+            indexes[i] = i;
+            sorted &= i == 0 || layout.offset(timingPoints, i - 1) <= layout.offset(timingPoints, i);
+        }
+        if (!sorted) {
+            // osu! stores them sorted, so this hardly ever happens
+            Integer[] boxed = new Integer[size];
+            for (int i = 0; i < size; ++i) {
+                boxed[i] = i;
+            }
+            // stable, so points on the same offset keep their order
+            Arrays.sort(boxed, Comparator.comparingDouble(i -> layout.offset(timingPoints, i)));
+            for (int i = 0; i < size; ++i) {
+                indexes[i] = boxed[i];
+            }
+        }
+
+        double[] offsets = new double[size];
+        boolean[] inherited = new boolean[size];
+        int uninheritedCount = 0;
+        for (int i = 0; i < size; ++i) {
+            offsets[i] = layout.offset(timingPoints, indexes[i]);
+            inherited[i] = layout.isInherited(timingPoints, indexes[i]);
+            if (!inherited[i]) {
+                ++uninheritedCount;
+            }
+        }
+
+        double[] uninheritedOffsets = new double[uninheritedCount];
+        double[] uninheritedMsPerBeat = new double[uninheritedCount];
+        int[] uninheritedIndexes = new int[uninheritedCount];
+        for (int i = 0, u = 0; i < size; ++i) {
+            if (!inherited[i]) {
+                uninheritedOffsets[u] = offsets[i];
+                uninheritedMsPerBeat[u] = layout.msPerBeat(timingPoints, indexes[i]);
+                uninheritedIndexes[u] = indexes[i];
+                ++u;
+            }
+        }
+        return new TimingPointTimeline(offsets, indexes, inherited, uninheritedOffsets, uninheritedMsPerBeat, uninheritedIndexes);
+    }
+
+    /**
+     * The not inherited timing point that sets the bpm at the given time. Before the first not inherited timing point
+     * that is the first one, like in osu!.
+     *
+     * @param time Time in milliseconds
+     * @return Index of the timing point, or <code>-1</code> if there are no not inherited timing points
+     */
+    public int uninheritedAt(double time) {
+        if (uninheritedOffsets.length == 0) {
+            return -1;
+        }
+        return uninheritedIndexes[Math.max(lastAtOrBefore(uninheritedOffsets, time), 0)];
+    }
+
+    /**
+     * The inherited timing point that is active at the given time: the last timing point at or before the time, if
+     * that is an inherited one. A not inherited timing point ends the previous inherited one.
+     *
+     * @param time Time in milliseconds
+     * @return Index of the timing point, or <code>-1</code> if no inherited timing point is active
+     */
+    public int inheritedAt(double time) {
+        int i = lastAtOrBefore(offsets, time);
+        return i >= 0 && inherited[i] ? indexes[i] : -1;
+    }
+
+    /**
+     * @param time Time in milliseconds
+     * @return Beats per minute at the given time, or <code>0</code> if there are no not inherited timing points
+     */
+    public double bpmAt(double time) {
+        if (uninheritedOffsets.length == 0) {
+            return 0D;
+        }
+        return 60000 / uninheritedMsPerBeat[Math.max(lastAtOrBefore(uninheritedOffsets, time), 0)];
+    }
+
+    /**
+     * The position in beats at the given time, counted from the first not inherited timing point. The integer part is
+     * the index of the beat, the fraction is how far the time is into that beat. Before the first not inherited timing
+     * point the beats are counted backwards (so the position is negative).
+     *
+     * @param time Time in milliseconds
+     * @return Position in beats, or <code>0</code> if there are no not inherited timing points
+     */
+    public double beatAt(double time) {
+        if (uninheritedOffsets.length == 0) {
+            return 0D;
+        }
+        int i = Math.max(lastAtOrBefore(uninheritedOffsets, time), 0);
+        return beats[i] + (time - uninheritedOffsets[i]) / uninheritedMsPerBeat[i];
+    }
+
+    /**
+     * @return Index of the last offset that is at or before the time, or <code>-1</code> if all offsets are after it
+     */
+    private static int lastAtOrBefore(double[] sortedOffsets, double time) {
+        int low = 0;
+        int high = sortedOffsets.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedOffsets[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+}
@@ -0,0 +1,270 @@
+package com.github.omkelderman.osudbparser.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the osu!.db data types straight from a {@link ByteBuffer}, without any copying through intermediate
+ * buffers.
+ * <p>
+ * The supplied {@link ByteBuffer} itself is never modified, this class reads from its own duplicate of it, starting at
+ * the position the supplied buffer had at construction time. {@link #position()} is the absolute position inside that
+ * buffer.
+ */
+public class OsuDbByteBufferInput implements OsuDbDataInput {
+    private final ByteBuffer buffer;
+    // limit of the buffer outside of the open sub-section, -1 if there is none
+    private int limitOutsideSection = -1;
+    private SectionInput section;
+    private StringPool stringPool;
+    // only used for buffers without a backing array, grows when needed
+    private byte[] stringBuffer;
+
+    public OsuDbByteBufferInput(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Memory-map a whole file, read only.
+     *
+     * @param path The file to map
+     * @return The mapped file
+     * @throws IOException on error, or when the file is to big to fit in a single {@link MappedByteBuffer}
+     */
+    public static MappedByteBuffer mapFile(Path path) throws IOException {
+        // the mapping stays valid after the channel has been closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("file to big to map into memory...");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * @return The current (absolute) position in the underlying buffer
+     */
+    public int position() {
+        return buffer.position();
+    }
+
+    /**
+     * Go to an absolute position in the underlying buffer, for example back to the start of a beatmap
+     *
+     * @param position The new position, can't be past the end of the open sub-section if there is one
+     * @throws IllegalArgumentException If the position is negative or past the end
+     */
+    public void position(int position) {
+        buffer.position(position);
+    }
+
+    /**
+     * @return The amount of bytes left to read, in the open sub-section if there is one
+     */
+    public int remaining() {
+        return buffer.remaining();
+    }
+
+    private void ensureRemaining(int amount) throws EOFException {
+        if (buffer.remaining() < amount) {
+            throw new EOFException();
+        }
+    }
+
+    @Override
+    public void readFully(byte[] bytes) throws IOException {
+        readFully(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int offset, int length) throws IOException {
+        if (length < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureRemaining(length);
+        buffer.get(bytes, offset, length);
+    }
+
+    @Override
+    public void skipFully(long amount) throws IOException {
+        if (amount <= 0) {
+            return;
+        }
+        if (amount > buffer.remaining()) {
+            throw new IOException("Could not skip " + amount + " bytes, only " + buffer.remaining() + " bytes left");
+        }
+        buffer.position(buffer.position() + (int) amount);
+    }
+
+    @Override
+    public void readExpectedUInt8(int expected) throws IOException {
+        int b = readUInt8();
+        if (b != expected) {
+            throw new IOException(String.format("Expected 0x%02X, but got 0x%02X", expected, b));
+        }
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return (readUInt8() != 0);
+    }
+
+    @Override
+    public int readUInt8() throws IOException {
+        ensureRemaining(1);
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int readUInt16() throws IOException {
+        ensureRemaining(2);
+        return buffer.getShort() & 0xFFFF;
+    }
+
+    @Override
+    public long readUInt32() throws IOException {
+        ensureRemaining(4);
+        return buffer.getInt() & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public long readUInt64() throws IOException {
+        ensureRemaining(8);
+        return buffer.getLong(); // OVERFLOW!!
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        ensureRemaining(4);
+        return buffer.getFloat();
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        ensureRemaining(8);
+        return buffer.getDouble();
+    }
+
+    @Override
+    public int readULEB128asInt() throws IOException {
+        int result = 0;
+        int shift = 0;
+        while (true) {
+            int b = readUInt8();
+            if (shift == 28 && (b & 0xF8) != 0) {
+                // more than 31 bits, a length can't be negative
+                throw new IOException("ULEB128 to much to store in an int...");
+            }
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) != 0x80) {
+                break;
+            }
+            shift += 7;
+        }
+        return result;
+    }
+
+    @Override
+    public String readString() throws IOException {
+        return readString(null);
+    }
+
+    @Override
+    public String readPooledString() throws IOException {
+        return readString(stringPool);
+    }
+
+    private String readString(StringPool pool) throws IOException {
+        int b = readUInt8();
+        if (b == 0) {
+            return null;
+        }
+        if (b != 0x0B) {
+            throw new IOException("expected byte 0x0B");
+        }
+        int length = readULEB128asInt();
+        ensureRemaining(length);
+
+        String string;
+        if (buffer.hasArray()) {
+            // heap buffer, decode directly from the backing array
+            byte[] array = buffer.array();
+            int offset = buffer.arrayOffset() + buffer.position();
+            string = pool == null ? StringDecoder.decode(array, offset, length) : pool.get(array, offset, length);
+            buffer.position(buffer.position() + length);
+        } else {
+            if (stringBuffer == null || length > stringBuffer.length) {
+                stringBuffer = new byte[Math.max(length, 64)];
+            }
+            buffer.get(stringBuffer, 0, length);
+            string = pool == null ? StringDecoder.decode(stringBuffer, 0, length) : pool.get(stringBuffer, 0, length);
+        }
+        return string;
+    }
+
+    @Override
+    public void skipString() throws IOException {
+        int b = readUInt8();
+        if (b == 0) {
+            return;
+        }
+        if (b != 0x0B) {
+            throw new IOException("expected byte 0x0B");
+        }
+        skipFully(readULEB128asInt());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The sub-section is enforced by limiting the buffer, the returned input is the same for every sub-section.
+     * Sub-sections can't be nested.
+     */
+    @Override
+    public OsuDbDataInput subInput(int length) throws IOException {
+        if (limitOutsideSection >= 0) {
+            throw new IllegalStateException("a sub-input is already open");
+        }
+        if (length < 0) {
+            throw new IOException("negative sub-input length: " + length);
+        }
+        ensureRemaining(length);
+        limitOutsideSection = buffer.limit();
+        buffer.limit(buffer.position() + length);
+        if (section == null) {
+            section = new SectionInput(this, this::endSection);
+        }
+        return section;
+    }
+
+    private void endSection() {
+        if (limitOutsideSection < 0) {
+            return;
+        }
+        buffer.position(buffer.limit());
+        buffer.limit(limitOutsideSection);
+        limitOutsideSection = -1;
+    }
+
+    @Override
+    public void setStringPool(StringPool stringPool) {
+        this.stringPool = stringPool;
+    }
+
+    @Override
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
+    @Override
+    public void close() {
+        // nothing to close, the buffer is owned by whoever supplied it
+    }
+}
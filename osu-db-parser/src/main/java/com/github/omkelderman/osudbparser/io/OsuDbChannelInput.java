@@ -0,0 +1,305 @@
+package com.github.omkelderman.osudbparser.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * Reads the osu!.db data types from a {@link ReadableByteChannel} (for example a {@link java.nio.channels.FileChannel}
+ * or a channel of an HTTP upload). The data is read into a single buffer that is reused until the end, there are no
+ * other buffering layers in between, and sub-sections (see {@link #subInput(int)}) don't allocate anything.
+ * <p>
+ * The channel must be in blocking mode. If it is a {@link SeekableByteChannel}, skipping past the buffered data is
+ * done by changing its position.
+ */
+public class OsuDbChannelInput implements OsuDbDataInput {
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    // the bytes read from the channel that are not consumed yet are between the position and the limit
+    private final ByteBuffer buffer;
+    // amount of bytes consumed before the start of the buffer
+    private long bufferStart;
+    // absolute end of the open sub-section, Long.MAX_VALUE if there is none
+    private long sectionEnd = Long.MAX_VALUE;
+    private SectionInput section;
+    private StringPool stringPool;
+    // only used for strings that don't fit in the buffer, grows when needed
+    private byte[] stringBuffer;
+
+    public OsuDbChannelInput(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public OsuDbChannelInput(ReadableByteChannel channel, int bufferSize) {
+        if (bufferSize < 8) {
+            throw new IllegalArgumentException("bufferSize must be at least 8");
+        }
+        this.channel = channel;
+        buffer = ByteBuffer.allocate(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.limit(0);
+    }
+
+    /**
+     * @return The amount of bytes read from this input
+     */
+    public long position() {
+        return bufferStart + buffer.position();
+    }
+
+    private void checkSection(long amount) throws EOFException {
+        if (position() + amount > sectionEnd) {
+            throw new EOFException();
+        }
+    }
+
+    /**
+     * Make sure at least <code>amount</code> bytes are buffered, <code>amount</code> can't be more than the capacity
+     * of the buffer.
+     */
+    private void ensureRemaining(int amount) throws IOException {
+        checkSection(amount);
+        if (buffer.remaining() < amount) {
+            fill(amount);
+        }
+    }
+
+    private void fill(int amount) throws IOException {
+        bufferStart += buffer.position();
+        buffer.compact();
+        try {
+            while (buffer.position() < amount) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException();
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    @Override
+    public void readFully(byte[] bytes) throws IOException {
+        readFully(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int offset, int length) throws IOException {
+        if (length < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        checkSection(length);
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                fill(1);
+            }
+            int amount = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, amount);
+            offset += amount;
+            length -= amount;
+        }
+    }
+
+    @Override
+    public void skipFully(long amount) throws IOException {
+        if (amount <= 0) {
+            return;
+        }
+        if (position() + amount > sectionEnd) {
+            throw new IOException("Could not skip " + amount + " bytes, only " + (sectionEnd - position()) + " bytes left");
+        }
+        int buffered = (int) Math.min(amount, buffer.remaining());
+        buffer.position(buffer.position() + buffered);
+        amount -= buffered;
+        if (amount == 0) {
+            return;
+        }
+
+        // nothing is buffered anymore
+        bufferStart += buffer.position();
+        buffer.position(0);
+        buffer.limit(0);
+        if (channel instanceof SeekableByteChannel) {
+            SeekableByteChannel seekable = (SeekableByteChannel) channel;
+            long target = seekable.position() + amount;
+            if (target > seekable.size()) {
+                throw new IOException("Could not skip " + amount + " bytes, only " + (seekable.size() - seekable.position()) + " bytes left");
+            }
+            seekable.position(target);
+            bufferStart += amount;
+        } else {
+            while (amount > 0) {
+                fill(1);
+                int skipped = (int) Math.min(amount, buffer.remaining());
+                buffer.position(buffer.position() + skipped);
+                amount -= skipped;
+            }
+        }
+    }
+
+    @Override
+    public void readExpectedUInt8(int expected) throws IOException {
+        int b = readUInt8();
+        if (b != expected) {
+            throw new IOException(String.format("Expected 0x%02X, but got 0x%02X", expected, b));
+        }
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return (readUInt8() != 0);
+    }
+
+    @Override
+    public int readUInt8() throws IOException {
+        ensureRemaining(1);
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int readUInt16() throws IOException {
+        ensureRemaining(2);
+        return buffer.getShort() & 0xFFFF;
+    }
+
+    @Override
+    public long readUInt32() throws IOException {
+        ensureRemaining(4);
+        return buffer.getInt() & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public long readUInt64() throws IOException {
+        ensureRemaining(8);
+        return buffer.getLong(); // OVERFLOW!!
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        ensureRemaining(4);
+        return buffer.getFloat();
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        ensureRemaining(8);
+        return buffer.getDouble();
+    }
+
+    @Override
+    public int readULEB128asInt() throws IOException {
+        int result = 0;
+        int shift = 0;
+        while (true) {
+            int b = readUInt8();
+            if (shift == 28 && (b & 0xF8) != 0) {
+                // more than 31 bits, a length can't be negative
+                throw new IOException("ULEB128 to much to store in an int...");
+            }
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) != 0x80) {
+                break;
+            }
+            shift += 7;
+        }
+        return result;
+    }
+
+    @Override
+    public String readString() throws IOException {
+        return readString(null);
+    }
+
+    @Override
+    public String readPooledString() throws IOException {
+        return readString(stringPool);
+    }
+
+    private String readString(StringPool pool) throws IOException {
+        int b = readUInt8();
+        if (b == 0) {
+            return null;
+        }
+        if (b != 0x0B) {
+            throw new IOException("expected byte 0x0B");
+        }
+        int length = readULEB128asInt();
+
+        if (length <= buffer.capacity()) {
+            // decode directly from the buffer
+            ensureRemaining(length);
+            int offset = buffer.position();
+            String string = pool == null ? StringDecoder.decode(buffer.array(), offset, length) : pool.get(buffer.array(), offset, length);
+            buffer.position(offset + length);
+            return string;
+        }
+        if (stringBuffer == null || length > stringBuffer.length) {
+            stringBuffer = new byte[length];
+        }
+        readFully(stringBuffer, 0, length);
+        return pool == null ? StringDecoder.decode(stringBuffer, 0, length) : pool.get(stringBuffer, 0, length);
+    }
+
+    @Override
+    public void skipString() throws IOException {
+        int b = readUInt8();
+        if (b == 0) {
+            return;
+        }
+        if (b != 0x0B) {
+            throw new IOException("expected byte 0x0B");
+        }
+        skipFully(readULEB128asInt());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This input enforces the end of the sub-section itself, the returned input is the same for every sub-section.
+     * Sub-sections can't be nested.
+     */
+    @Override
+    public OsuDbDataInput subInput(int length) throws IOException {
+        if (sectionEnd != Long.MAX_VALUE) {
+            throw new IllegalStateException("a sub-input is already open");
+        }
+        if (length < 0) {
+            throw new IOException("negative sub-input length: " + length);
+        }
+        checkSection(length);
+        sectionEnd = position() + length;
+        if (section == null) {
+            section = new SectionInput(this, this::endSection);
+        }
+        return section;
+    }
+
+    private void endSection() throws IOException {
+        if (sectionEnd == Long.MAX_VALUE) {
+            return;
+        }
+        try {
+            skipFully(sectionEnd - position());
+        } finally {
+            sectionEnd = Long.MAX_VALUE;
+        }
+    }
+
+    @Override
+    public void setStringPool(StringPool stringPool) {
+        this.stringPool = stringPool;
+    }
+
+    @Override
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
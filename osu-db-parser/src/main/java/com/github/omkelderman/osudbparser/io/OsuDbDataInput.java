@@ -0,0 +1,112 @@
+package com.github.omkelderman.osudbparser.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Something the (little endian) osu!.db data types can be read from.
+ * <p>
+ * {@link OsuDbInputStream} reads them from any {@link java.io.InputStream}, {@link OsuDbByteBufferInput} decodes them
+ * straight out of a {@link java.nio.ByteBuffer} (for example a memory-mapped file) and {@link OsuDbChannelInput} reads
+ * them from a {@link java.nio.channels.ReadableByteChannel}. The parsers only care about this interface, so they don't
+ * need to know where the bytes are coming from.
+ */
+public interface OsuDbDataInput extends Closeable {
+    void readFully(byte[] bytes) throws IOException;
+
+    void readFully(byte[] bytes, int offset, int length) throws IOException;
+
+    void skipFully(long amount) throws IOException;
+
+    /**
+     * Reads a unsigned 8 bit integer and checks if it matches <code>expected</code>
+     *
+     * @param expected The expected unsigned 8 bit integer
+     * @throws IOException If the number read does not matches <code>expected</code>
+     */
+    void readExpectedUInt8(int expected) throws IOException;
+
+    boolean readBoolean() throws IOException;
+
+    /**
+     * Read unsigned 8 bit integer
+     *
+     * @return int representing an unsigned 8 bit integer
+     * @throws IOException on error of when the end of the input has been reached
+     */
+    int readUInt8() throws IOException;
+
+    /**
+     * Read little endian unsigned 16 bit integer
+     *
+     * @return int representing an unsigned 16 bit integer
+     * @throws IOException on error of when the end of the input has been reached
+     */
+    int readUInt16() throws IOException;
+
+    /**
+     * Read little endian unsigned 32 bit integer
+     *
+     * @return long representing an unsigned 32 bit integer
+     * @throws IOException on error of when the end of the input has been reached
+     */
+    long readUInt32() throws IOException;
+
+    /**
+     * Read little endian unsigned 64 bit integer.
+     * <p>
+     * <b>NOTE: there is no java-type to store an 64 bit unsigned number... so its stored in an long, this will give
+     * wrong results for numbers above Long.MAX_VALUE.</b>
+     *
+     * @return long representing an unsigned 64 bit integer
+     * (negative values possible if original is above Long.MAX_VALUE)
+     * @throws IOException on error of when the end of the input has been reached
+     */
+    long readUInt64() throws IOException;
+
+    float readFloat() throws IOException;
+
+    double readDouble() throws IOException;
+
+    int readULEB128asInt() throws IOException;
+
+    String readString() throws IOException;
+
+    /**
+     * Read a string that is likely to repeat. If a {@link StringPool} is set, the string is looked up in it by its raw
+     * bytes, before decoding it. Otherwise this is the same as {@link #readString()}.
+     *
+     * @return The string, or <code>null</code>
+     * @throws IOException on error
+     */
+    String readPooledString() throws IOException;
+
+    /**
+     * Set the pool used by {@link #readPooledString()}, inputs returned by {@link #subInput(int)} use the same pool.
+     *
+     * @param stringPool The pool, or <code>null</code> to not pool strings
+     */
+    void setStringPool(StringPool stringPool);
+
+    StringPool getStringPool();
+
+    /**
+     * Skip a string, without reading or decoding its contents
+     *
+     * @throws IOException on error
+     */
+    void skipString() throws IOException;
+
+    /**
+     * Get an input for only the next <code>length</code> bytes. Reading past those bytes acts as EOF. When the returned
+     * input is closed, any bytes that haven't been read yet are skipped, so this input continues right after the
+     * sub-section.
+     * <p>
+     * Do NOT use this input anymore until the returned one is closed.
+     *
+     * @param length The size of the sub-section
+     * @return Input for the sub-section
+     * @throws IOException on error
+     */
+    OsuDbDataInput subInput(int length) throws IOException;
+}
@@ -4,20 +4,68 @@ import java.io.BufferedInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.Charset;
 
-public class OsuDbInputStream extends BufferedInputStream {
-    private static final Charset UTF_8 = Charset.forName("UTF-8");
+public class OsuDbInputStream extends BufferedInputStream implements OsuDbDataInput {
+    private static final long NO_SECTION = -1;
+
     private byte[] byteBuffer = new byte[8];
+    // reused for the bytes of every string, grows when needed
+    private byte[] stringBuffer = new byte[64];
+    private StringPool stringPool;
+    // bytes left in the open sub-section, or NO_SECTION
+    private long sectionRemaining = NO_SECTION;
+    private SectionInput section;
 
     public OsuDbInputStream(InputStream in) {
         super(in);
     }
 
+    @Override
+    public int read() throws IOException {
+        if (sectionRemaining == 0) {
+            // no more bytes to read in this sub-section
+            return -1;
+        }
+        int b = super.read();
+        if (b >= 0 && sectionRemaining > 0) {
+            --sectionRemaining;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (sectionRemaining == 0) {
+            return len == 0 ? 0 : -1;
+        }
+        if (sectionRemaining > 0 && len > sectionRemaining) {
+            len = (int) sectionRemaining;
+        }
+        int amountRead = super.read(b, off, len);
+        if (amountRead > 0 && sectionRemaining > 0) {
+            sectionRemaining -= amountRead;
+        }
+        return amountRead;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (sectionRemaining >= 0 && n > sectionRemaining) {
+            n = sectionRemaining;
+        }
+        long skipped = super.skip(n);
+        if (skipped > 0 && sectionRemaining > 0) {
+            sectionRemaining -= skipped;
+        }
+        return skipped;
+    }
+
+    @Override
     public void readFully(byte[] bytes) throws IOException {
         readFully(bytes, 0, bytes.length);
     }
 
+    @Override
     public final void readFully(byte[] bytes, int offset, int length) throws IOException {
         if (length < 0) {
             throw new IndexOutOfBoundsException();
@@ -36,6 +84,7 @@ public class OsuDbInputStream extends BufferedInputStream {
         readFully(byteBuffer, 0, amount);
     }
 
+    @Override
     public void skipFully(long amount) throws IOException {
         long totalSkipped = 0;
         while (totalSkipped < amount) {
@@ -53,6 +102,7 @@ public class OsuDbInputStream extends BufferedInputStream {
      * @param expected The expected unsigned 8 bit integer
      * @throws IOException If the number read does not matches <code>expected</code>
      */
+    @Override
     public void readExpectedUInt8(int expected) throws IOException {
         int b = readUInt8();
         if (b != expected) {
@@ -60,6 +110,7 @@ public class OsuDbInputStream extends BufferedInputStream {
         }
     }
 
+    @Override
     public boolean readBoolean() throws IOException {
         return (readUInt8() != 0);
     }
@@ -70,6 +121,7 @@ public class OsuDbInputStream extends BufferedInputStream {
      * @return int representing an unsigned 8 bit integer
      * @throws IOException on error of when the end of stream has been reached
      */
+    @Override
     public int readUInt8() throws IOException {
         int b = read();
         if (b < 0) {
@@ -85,6 +137,7 @@ public class OsuDbInputStream extends BufferedInputStream {
      * @return int representing an unsigned 16 bit integer
      * @throws IOException on error of when the end of stream has been reached
      */
+    @Override
     public int readUInt16() throws IOException {
         readIntoBuffer(2);
         return (byteBuffer[0] & 0xFF)
@@ -97,6 +150,7 @@ public class OsuDbInputStream extends BufferedInputStream {
      * @return long representing an unsigned 32 bit integer
      * @throws IOException on error of when the end of stream has been reached
      */
+    @Override
     public long readUInt32() throws IOException {
         readIntoBuffer(4);
         return (byteBuffer[0] & 0xFFL)
@@ -116,6 +170,7 @@ public class OsuDbInputStream extends BufferedInputStream {
      * (negative values possible if original is above Long.MAX_VALUE)
      * @throws IOException on error of when the end of stream has been reached
      */
+    @Override
     public long readUInt64() throws IOException {
         readIntoBuffer(8);
         return (byteBuffer[0] & 0xFFL)
@@ -128,6 +183,7 @@ public class OsuDbInputStream extends BufferedInputStream {
                 | ((byteBuffer[7] & 0xFFL) << 56); // OVERFLOW!!
     }
 
+    @Override
     public float readFloat() throws IOException {
         readIntoBuffer(4);
         return Float.intBitsToFloat((byteBuffer[0] & 0xFF)
@@ -136,6 +192,7 @@ public class OsuDbInputStream extends BufferedInputStream {
                 | ((byteBuffer[3] & 0xFF) << 24));
     }
 
+    @Override
     public double readDouble() throws IOException {
         readIntoBuffer(8);
         return Double.longBitsToDouble((byteBuffer[0] & 0xFFL)
@@ -163,22 +220,36 @@ public class OsuDbInputStream extends BufferedInputStream {
 //        return result;
 //    }
 
+    @Override
     public int readULEB128asInt() throws IOException {
         int result = 0;
         int shift = 0;
         while (true) {
             int b = readUInt8();
+            if (shift == 28 && (b & 0xF8) != 0) {
+                // more than 31 bits, a length can't be negative
+                throw new IOException("ULEB128 to much to store in an int...");
+            }
             result |= (b & 0x7F) << shift;
             if ((b & 0x80) != 0x80) {
                 break;
             }
             shift += 7;
-            // TODO throw exception when not fits in int anymore
         }
         return result;
     }
 
+    @Override
     public String readString() throws IOException {
+        return readString(null);
+    }
+
+    @Override
+    public String readPooledString() throws IOException {
+        return readString(stringPool);
+    }
+
+    private String readString(StringPool pool) throws IOException {
         int b = readUInt8();
         if (b == 0) {
             return null;
@@ -187,9 +258,65 @@ public class OsuDbInputStream extends BufferedInputStream {
             throw new IOException("expected byte 0x0B");
         }
         int length = readULEB128asInt();
-        byte[] bytes = new byte[length];
-        readFully(bytes);
+        if (length > stringBuffer.length) {
+            stringBuffer = new byte[Math.max(length, stringBuffer.length * 2)];
+        }
+        readFully(stringBuffer, 0, length);
+
+        return pool == null ? StringDecoder.decode(stringBuffer, 0, length) : pool.get(stringBuffer, 0, length);
+    }
+
+    @Override
+    public void skipString() throws IOException {
+        int b = readUInt8();
+        if (b == 0) {
+            return;
+        }
+        if (b != 0x0B) {
+            throw new IOException("expected byte 0x0B");
+        }
+        skipFully(readULEB128asInt());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This input enforces the end of the sub-section itself, the returned input is the same for every sub-section.
+     * Sub-sections can't be nested.
+     */
+    @Override
+    public OsuDbDataInput subInput(int length) throws IOException {
+        if (sectionRemaining != NO_SECTION) {
+            throw new IllegalStateException("a sub-input is already open");
+        }
+        if (length < 0) {
+            throw new IOException("negative sub-input length: " + length);
+        }
+        sectionRemaining = length;
+        if (section == null) {
+            section = new SectionInput(this, this::endSection);
+        }
+        return section;
+    }
+
+    private void endSection() throws IOException {
+        if (sectionRemaining == NO_SECTION) {
+            return;
+        }
+        try {
+            skipFully(sectionRemaining);
+        } finally {
+            sectionRemaining = NO_SECTION;
+        }
+    }
+
+    @Override
+    public void setStringPool(StringPool stringPool) {
+        this.stringPool = stringPool;
+    }
 
-        return new String(bytes, UTF_8);
+    @Override
+    public StringPool getStringPool() {
+        return stringPool;
     }
 }
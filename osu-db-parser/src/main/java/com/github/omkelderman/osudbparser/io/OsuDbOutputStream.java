@@ -16,6 +16,10 @@ public class OsuDbOutputStream extends BufferedOutputStream {
         super(out);
     }
 
+    public OsuDbOutputStream(OutputStream out, int size) {
+        super(out, size);
+    }
+
     // the writeFully-methods seems kinda redundant here...
     // BufferedOutputStream implements them already as I want them
 
@@ -0,0 +1,123 @@
+package com.github.omkelderman.osudbparser.io;
+
+import java.io.IOException;
+
+/**
+ * The input returned by {@link OsuDbDataInput#subInput(int)} of inputs that enforce the end of the sub-section
+ * themselves. It only passes every call on to that input, and ends the sub-section when it is closed. An input uses a
+ * single instance for all of its sub-sections, so reading a sub-section does not allocate anything.
+ */
+final class SectionInput implements OsuDbDataInput {
+    private final OsuDbDataInput in;
+    private final End end;
+
+    SectionInput(OsuDbDataInput in, End end) {
+        this.in = in;
+        this.end = end;
+    }
+
+    @Override
+    public void readFully(byte[] bytes) throws IOException {
+        in.readFully(bytes);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int offset, int length) throws IOException {
+        in.readFully(bytes, offset, length);
+    }
+
+    @Override
+    public void skipFully(long amount) throws IOException {
+        in.skipFully(amount);
+    }
+
+    @Override
+    public void readExpectedUInt8(int expected) throws IOException {
+        in.readExpectedUInt8(expected);
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return in.readBoolean();
+    }
+
+    @Override
+    public int readUInt8() throws IOException {
+        return in.readUInt8();
+    }
+
+    @Override
+    public int readUInt16() throws IOException {
+        return in.readUInt16();
+    }
+
+    @Override
+    public long readUInt32() throws IOException {
+        return in.readUInt32();
+    }
+
+    @Override
+    public long readUInt64() throws IOException {
+        return in.readUInt64();
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        return in.readFloat();
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        return in.readDouble();
+    }
+
+    @Override
+    public int readULEB128asInt() throws IOException {
+        return in.readULEB128asInt();
+    }
+
+    @Override
+    public String readString() throws IOException {
+        return in.readString();
+    }
+
+    @Override
+    public String readPooledString() throws IOException {
+        return in.readPooledString();
+    }
+
+    @Override
+    public void setStringPool(StringPool stringPool) {
+        in.setStringPool(stringPool);
+    }
+
+    @Override
+    public StringPool getStringPool() {
+        return in.getStringPool();
+    }
+
+    @Override
+    public void skipString() throws IOException {
+        in.skipString();
+    }
+
+    @Override
+    public OsuDbDataInput subInput(int length) throws IOException {
+        return in.subInput(length);
+    }
+
+    /**
+     * Skips the rest of the sub-section
+     */
+    @Override
+    public void close() throws IOException {
+        end.end();
+    }
+
+    /**
+     * Ends the current sub-section of the input
+     */
+    interface End {
+        void end() throws IOException;
+    }
+}
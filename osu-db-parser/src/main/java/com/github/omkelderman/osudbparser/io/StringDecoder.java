@@ -0,0 +1,32 @@
+package com.github.omkelderman.osudbparser.io;
+
+import java.nio.charset.Charset;
+
+/**
+ * Decoding of the UTF-8 strings in the osu!.db file. Most of those strings (MD5 hashes, file names, difficulty names)
+ * are pure ASCII, which is decoded without going through the charset decoder.
+ */
+final class StringDecoder {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private StringDecoder() {
+    }
+
+    @SuppressWarnings("deprecation")
+    static String decode(byte[] bytes, int offset, int length) {
+        if (isAscii(bytes, offset, length)) {
+            // ASCII maps one-to-one on chars, so the "hibyte" constructor gives the same result without a decoder
+            return new String(bytes, 0, offset, length);
+        }
+        return new String(bytes, offset, length, UTF_8);
+    }
+
+    private static boolean isAscii(byte[] bytes, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; ++i) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.omkelderman.osudbparser.io;
+
+import java.util.Arrays;
+
+/**
+ * Bounded cache of decoded strings, keyed by their raw UTF-8 bytes. Strings like the artist, creator and folder name
+ * repeat for every difficulty of a beatmap set, with a pool these are decoded once and share a single instance.
+ * <p>
+ * The pool has a fixed amount of slots, a string that lands in an occupied slot replaces the one that was there. So the
+ * memory used by the pool itself stays bounded, no matter how many different strings are read through it.
+ * <p>
+ * A pool can be used for a single parse, or shared between multiple parses (also concurrently, a slot is replaced as a
+ * whole so the worst thing a race can do is cause a miss).
+ */
+public final class StringPool {
+    /**
+     * Default amount of slots, enough for the repeating strings of a few thousand beatmap sets
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final Entry[] entries;
+
+    public StringPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Amount of slots, rounded up to a power of two
+     */
+    public StringPool(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30, got " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        entries = new Entry[size];
+    }
+
+    /**
+     * Get the string for the UTF-8 encoded <code>bytes</code>, from the pool if it is there, otherwise it is decoded
+     * and added to the pool.
+     *
+     * @param bytes  Array containing the encoded string
+     * @param offset Start of the string in <code>bytes</code>
+     * @param length Length of the string in bytes
+     * @return The decoded string
+     */
+    public String get(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return "";
+        }
+        int hash = hash(bytes, offset, length);
+        int slot = hash & (entries.length - 1);
+        Entry entry = entries[slot];
+        if (entry != null && entry.hash == hash && entry.matches(bytes, offset, length)) {
+            return entry.string;
+        }
+        String string = StringDecoder.decode(bytes, offset, length);
+        entries[slot] = new Entry(hash, Arrays.copyOfRange(bytes, offset, offset + length), string);
+        return string;
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = 1;
+        for (int i = offset, end = offset + length; i < end; ++i) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Entry {
+        private final int hash;
+        private final byte[] bytes;
+        private final String string;
+
+        private Entry(int hash, byte[] bytes, String string) {
+            this.hash = hash;
+            this.bytes = bytes;
+            this.string = string;
+        }
+
+        private boolean matches(byte[] other, int offset, int length) {
+            if (bytes.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; ++i) {
+                if (bytes[i] != other[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbByteBufferInput;
+import com.github.omkelderman.osudbparser.io.OsuDbInputStream;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+
+public class BeatmapOffsetIndexTest {
+
+    private static BeatmapOffsetIndex buildIndex(byte[] bytes, long osuVersion) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        OsuDbByteBufferInput iStream = new OsuDbByteBufferInput(buffer);
+        int beatmapCount = (int) iStream.readUInt32();
+        return BeatmapOffsetIndex.build(buffer, iStream, beatmapCount, osuVersion);
+    }
+
+    @Test
+    public void testBuild() throws Exception {
+        byte[] bytes = TestFiles.readResource("osuBeatmap-array.db");
+        BeatmapOffsetIndex index = buildIndex(bytes, 20140609);
+
+        assertEquals(33, index.size());
+        assertEquals(4, index.start(0));
+        assertEquals(bytes.length, index.end(32));
+        for (int i = 1; i < index.size(); ++i) {
+            assertEquals(index.end(i - 1), index.start(i));
+        }
+    }
+
+    @Test
+    public void testParseAll() throws Exception {
+        OsuBeatmapInfo[] expected = OsuBeatmapInfo.parseArray(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("osuBeatmap-array.db")), 20140609);
+        BeatmapOffsetIndex index = buildIndex(TestFiles.readResource("osuBeatmap-array.db"), 20140609);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // chunk size that does not fit nicely, so the last chunk is smaller
+            TestFiles.assertBeatmapsEquals(expected, index.parseAll(executor, 5));
+            TestFiles.assertBeatmapsEquals(expected, index.parseAll(executor, 100));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseAllCorrupted() throws Exception {
+        byte[] bytes = TestFiles.readResource("osuBeatmap-array.db");
+        BeatmapOffsetIndex index = buildIndex(bytes, 20140609);
+        // first string of the 10th beatmap does not start with 0x00 or 0x0B anymore
+        bytes[index.start(10)] = 0x42;
+
+        index.parseAll(Runnable::run, 5);
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.omkelderman.osudbparser;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LongIndexTest {
+
+    @Test
+    public void testLookup() {
+        LongIndex index = LongIndex.build(new long[]{5, 0, 7, 5, -1, 5, 0}, 0);
+
+        assertEquals(0, index.first(5));
+        assertArrayEquals(new int[]{0, 3, 5}, index.all(5));
+        assertEquals(2, index.first(7));
+        assertArrayEquals(new int[]{4}, index.all(-1));
+        assertEquals(-1, index.first(0));
+        assertArrayEquals(new int[0], index.all(0));
+        assertEquals(-1, index.first(42));
+    }
+
+    @Test
+    public void testManyKeys() {
+        long[] keys = new long[10000];
+        for (int i = 0; i < keys.length; ++i) {
+            // a lot of keys that only differ in the high bits
+            keys[i] = ((long) (i / 2) << 40) + 1;
+        }
+        LongIndex index = LongIndex.build(keys, 0);
+
+        for (int i = 0; i < keys.length; i += 2) {
+            assertArrayEquals(new int[]{i, i + 1}, index.all(keys[i]));
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(-1, LongIndex.build(new long[0], 0).first(1));
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbByteBufferInput;
+import com.github.omkelderman.osudbparser.io.OsuDbOutputStream;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class Md5HashTest {
+    private static final String HASH = "1e1cbbf6c326e8e908e5be71d9d9602e";
+
+    private static OsuDbByteBufferInput stringInput(String... strings) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OsuDbOutputStream out = new OsuDbOutputStream(bytes)) {
+            for (String string : strings) {
+                out.writeString(string);
+            }
+        }
+        return new OsuDbByteBufferInput(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    @Test
+    public void testParse() {
+        Md5Hash hash = Md5Hash.parse(HASH);
+
+        assertEquals(0x1e1cbbf6c326e8e9L, hash.getHigh());
+        assertEquals(0x08e5be71d9d9602eL, hash.getLow());
+        assertEquals(HASH, hash.toString());
+        assertEquals(hash, Md5Hash.parse(HASH.toUpperCase()));
+        assertEquals(hash.hashCode(), Md5Hash.parse(HASH.toUpperCase()).hashCode());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalid() {
+        Md5Hash.parse("1e1cbbf6c326e8e908e5be71d9d9602g");
+    }
+
+    @Test
+    public void testTryParseInvalid() {
+        assertNull(Md5Hash.tryParse(null));
+        assertNull(Md5Hash.tryParse("1e1cbbf6"));
+        assertNull(Md5Hash.tryParse("1e1cbbf6c326e8e908e5be71d9d9602e0"));
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        OsuDbByteBufferInput input = stringInput(HASH, "ffffffffffffffffffffffffffffffff", null, "not a hash",
+                "1e1cbbf6c326e8e908e5be71d9d9602x", "end");
+
+        assertEquals(Md5Hash.parse(HASH), Md5Hash.read(input));
+        assertEquals(new Md5Hash(-1L, -1L), Md5Hash.read(input));
+        assertNull(Md5Hash.read(input));
+        assertNull(Md5Hash.read(input));
+        assertNull(Md5Hash.read(input));
+        assertEquals("end", input.readString());
+    }
+}
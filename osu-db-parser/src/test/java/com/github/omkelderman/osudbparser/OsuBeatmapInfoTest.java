@@ -0,0 +1,309 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbByteBufferInput;
+import com.github.omkelderman.osudbparser.io.OsuDbInputStream;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class OsuBeatmapInfoTest {
+
+    @Test
+    public void testParse() throws Exception {
+        OsuBeatmapInfo beatmapInfo = OsuBeatmapInfo.parse(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("osuBeatmap-single.db")), 20140609);
+
+        assertEquals("Chasers", beatmapInfo.getArtistName());
+        assertEquals("Chasers", beatmapInfo.getArtistNameUnicode());
+        assertEquals("Lost", beatmapInfo.getSongTitle());
+        assertEquals("Lost", beatmapInfo.getSongTitleUnicode());
+        assertEquals("ktgster", beatmapInfo.getCreatorName());
+        assertEquals("Hard", beatmapInfo.getDifficulty());
+        assertEquals("Chasers - Lost.mp3", beatmapInfo.getAudioFileName());
+        assertEquals("1e1cbbf6c326e8e908e5be71d9d9602e", beatmapInfo.getMd5BeatmapHash());
+        assertEquals("Chasers - Lost (ktgster) [Hard].osu", beatmapInfo.getOsuFileName());
+        assertEquals(4, beatmapInfo.getRankedStatusRaw());
+        assertEquals(289, beatmapInfo.getHitcircleCount());
+        assertEquals(219, beatmapInfo.getSliderCount());
+        assertEquals(3, beatmapInfo.getSpinnerCount());
+        assertEquals(635914054562956248L, beatmapInfo.getLastModificationTime());
+        assertEquals(7F, beatmapInfo.getApproachRate(), 0.0001F);
+        assertEquals(4F, beatmapInfo.getCircleSize(), 0.0001F);
+        assertEquals(5F, beatmapInfo.getHpDrain(), 0.0001F);
+        assertEquals(6F, beatmapInfo.getOverallDifficulty(), 0.0001F);
+        assertEquals(1.5D, beatmapInfo.getSliderVelocity(), 0.0001D);
+        assertNotNull(beatmapInfo.getStandardStarRating());
+        assertNull(beatmapInfo.getTaikoStarRating());
+        assertNull(beatmapInfo.getCtbStarRating());
+        assertNull(beatmapInfo.getManiaStarRating());
+        assertEquals(197L, beatmapInfo.getDrainTime());
+        assertEquals(205948L, beatmapInfo.getTotalTime());
+        assertEquals(115781L, beatmapInfo.getAudioPreviewStartTime());
+        assertEquals(41, beatmapInfo.getTimingPoints().length);
+        assertEquals(374113L, beatmapInfo.getBeatmapId());
+        assertEquals(151878L, beatmapInfo.getBeatmapSetId());
+        assertEquals(187996L, beatmapInfo.getThreadId());
+        assertEquals(OsuBeatmapInfo.Grade.NONE, beatmapInfo.getStandardGrade());
+        assertEquals(OsuBeatmapInfo.Grade.NONE, beatmapInfo.getTaikoGrade());
+        assertEquals(OsuBeatmapInfo.Grade.NONE, beatmapInfo.getCtbGrade());
+        assertEquals(OsuBeatmapInfo.Grade.NONE, beatmapInfo.getManiaGrade());
+        assertEquals(0, beatmapInfo.getLocalOffset());
+        assertEquals(0.7F, beatmapInfo.getStackLeniency(), 0.0001F);
+        assertEquals(OsuBeatmapInfo.GameMode.OSU, beatmapInfo.getGameMode());
+        assertEquals("", beatmapInfo.getSource());
+        assertEquals("hardcore", beatmapInfo.getTags());
+        assertEquals(0, beatmapInfo.getOnlineOffset());
+        assertEquals("", beatmapInfo.getFont());
+        assertTrue(beatmapInfo.isUnplayed());
+        assertEquals(0L, beatmapInfo.getLastTimePlayed());
+        assertFalse(beatmapInfo.isOsz2());
+        assertEquals("151878 Chasers - Lost", beatmapInfo.getFolderName());
+        assertEquals(635920983394330576L, beatmapInfo.getLastCheckedTime());
+        assertFalse(beatmapInfo.isIgnoreBeatmapSounds());
+        assertFalse(beatmapInfo.isIgnoreBeatmapSkin());
+        assertFalse(beatmapInfo.isDisableStoryboard());
+        assertFalse(beatmapInfo.isDisableVideo());
+        assertFalse(beatmapInfo.isVisualOverride());
+        assertEquals(0L, beatmapInfo.getLastModificationTime2());
+        assertEquals(0, beatmapInfo.getManiaScrollSpeed());
+
+        // calculated data
+        assertEquals(OsuBeatmapInfo.RankedStatus.RANKED, beatmapInfo.getRankedStatus());
+        assertEquals(170D, beatmapInfo.getBpmMin(), 0.0001D);
+        assertEquals(170D, beatmapInfo.getBpmMax(), 0.0001D);
+        assertEquals(170D, beatmapInfo.getBpm(), 0.0001D);
+        assertFalse(beatmapInfo.isVariableBpm());
+    }
+
+    @Test
+    public void testParseArray() throws Exception {
+        OsuBeatmapInfo[] beatmapInfos = OsuBeatmapInfo.parseArray(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("osuBeatmap-array.db")), 20140609);
+        assertEquals(33, beatmapInfos.length);
+
+        // beatmap-specific options are tested in the other test
+    }
+
+    @Test
+    public void testSkip() throws Exception {
+        OsuDbByteBufferInput parsed = new OsuDbByteBufferInput(ByteBuffer.wrap(TestFiles.readResource("osuBeatmap-array.db")));
+        OsuDbByteBufferInput skipped = new OsuDbByteBufferInput(ByteBuffer.wrap(TestFiles.readResource("osuBeatmap-array.db")));
+        long count = parsed.readUInt32();
+        skipped.readUInt32();
+
+        for (long i = 0; i < count; ++i) {
+            OsuBeatmapInfo.parse(parsed, 20140609);
+            OsuBeatmapInfo.skip(skipped, 20140609);
+            assertEquals(parsed.position(), skipped.position());
+        }
+        assertEquals(0, skipped.remaining());
+    }
+
+    private static final Set<OsuBeatmapInfo.Field> LOOKUP_FIELDS = EnumSet.of(OsuBeatmapInfo.Field.MD5_BEATMAP_HASH,
+            OsuBeatmapInfo.Field.BEATMAP_ID, OsuBeatmapInfo.Field.BEATMAP_SET_ID, OsuBeatmapInfo.Field.FOLDER_NAME);
+
+    private static void assertIsLookupProjection(OsuBeatmapInfo beatmapInfo) {
+        assertEquals("1e1cbbf6c326e8e908e5be71d9d9602e", beatmapInfo.getMd5BeatmapHash());
+        assertEquals(374113L, beatmapInfo.getBeatmapId());
+        assertEquals(151878L, beatmapInfo.getBeatmapSetId());
+        assertEquals("151878 Chasers - Lost", beatmapInfo.getFolderName());
+
+        // skipped fields
+        assertNull(beatmapInfo.getArtistName());
+        assertNull(beatmapInfo.getTags());
+        assertNull(beatmapInfo.getStandardStarRating());
+        assertNull(beatmapInfo.getTimingPoints());
+        assertNull(beatmapInfo.getStandardGrade());
+        assertNull(beatmapInfo.getRankedStatus());
+        assertEquals(0L, beatmapInfo.getTotalTime());
+        assertEquals(0L, beatmapInfo.getThreadId());
+        assertEquals(0D, beatmapInfo.getBpm(), 0D);
+    }
+
+    @Test
+    public void testParseFields() throws Exception {
+        OsuDbByteBufferInput iStream = new OsuDbByteBufferInput(ByteBuffer.wrap(TestFiles.readResource("osuBeatmap-single.db")));
+        OsuBeatmapInfo beatmapInfo = OsuBeatmapInfo.parse(iStream, 20140609, LOOKUP_FIELDS);
+
+        assertIsLookupProjection(beatmapInfo);
+        assertEquals("the skipped fields at the end should be skipped as well", 0, iStream.remaining());
+    }
+
+    @Test
+    public void testParseFieldsWithBeatmapLength() throws Exception {
+        byte[] beatmapBytes = TestFiles.readResource("osuBeatmap-single.db");
+        ByteBuffer buffer = ByteBuffer.allocate(4 + beatmapBytes.length + 1).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(beatmapBytes.length).put(beatmapBytes).put((byte) 0x42).flip();
+        OsuDbByteBufferInput iStream = new OsuDbByteBufferInput(buffer);
+
+        OsuBeatmapInfo beatmapInfo = OsuBeatmapInfo.parse(iStream, TestFiles.BEATMAP_LENGTH_VERSION, LOOKUP_FIELDS);
+
+        assertIsLookupProjection(beatmapInfo);
+        assertEquals("should continue right after the beatmap", 0x42, iStream.readUInt8());
+    }
+
+    @Test
+    public void testParseFieldsBpm() throws Exception {
+        OsuBeatmapInfo beatmapInfo = OsuBeatmapInfo.parse(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("osuBeatmap-single.db")),
+                20140609, EnumSet.of(OsuBeatmapInfo.Field.BPM, OsuBeatmapInfo.Field.GAME_MODE));
+
+        assertEquals(OsuBeatmapInfo.GameMode.OSU, beatmapInfo.getGameMode());
+        assertEquals(170D, beatmapInfo.getBpmMin(), 0.0001D);
+        assertEquals(170D, beatmapInfo.getBpmMax(), 0.0001D);
+        assertEquals(170D, beatmapInfo.getBpm(), 0.0001D);
+        assertNull(beatmapInfo.getMd5BeatmapHash());
+    }
+
+    @Test
+    public void testParseFieldsWithoutBpm() throws Exception {
+        OsuBeatmapInfo beatmapInfo = OsuBeatmapInfo.parse(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("osuBeatmap-single.db")),
+                20140609, EnumSet.of(OsuBeatmapInfo.Field.TIMING_POINTS));
+
+        // the bpm is only calculated when it is asked for
+        assertNotNull(beatmapInfo.getTimingPoints());
+        assertEquals(0D, beatmapInfo.getBpmMax(), 0D);
+        assertFalse(beatmapInfo.isVariableBpm());
+    }
+
+    @Test
+    public void testParseFieldsMd5Hash() throws Exception {
+        OsuBeatmapInfo beatmapInfo = OsuBeatmapInfo.parse(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("osuBeatmap-single.db")),
+                20140609, EnumSet.of(OsuBeatmapInfo.Field.MD5_HASH));
+
+        assertNull(beatmapInfo.getMd5BeatmapHash());
+        assertEquals(Md5Hash.parse("1e1cbbf6c326e8e908e5be71d9d9602e"), beatmapInfo.getMd5Hash());
+    }
+
+    @Test
+    public void testParseArrayFieldsAll() throws Exception {
+        OsuBeatmapInfo[] expected = OsuBeatmapInfo.parseArray(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("osuBeatmap-array.db")), 20140609);
+        OsuDbInputStream iStream = new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("osuBeatmap-array.db"));
+        iStream.readUInt32();
+
+        for (OsuBeatmapInfo beatmapInfo : expected) {
+            TestFiles.assertBeatmapEquals(beatmapInfo, OsuBeatmapInfo.parse(iStream, 20140609, EnumSet.allOf(OsuBeatmapInfo.Field.class)));
+        }
+    }
+
+    @Test
+    public void testTimingPointsDecodedOnce() throws Exception {
+        OsuBeatmapInfo beatmapInfo = OsuBeatmapInfo.parse(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("osuBeatmap-single.db")), 20140609);
+
+        TimingPoint[] timingPoints = beatmapInfo.getTimingPoints();
+        assertEquals(41, timingPoints.length);
+        assertSame(timingPoints, beatmapInfo.getTimingPoints());
+    }
+
+    @Test
+    public void testUnsignedValues() throws Exception {
+        OsuBeatmapInfo beatmapInfo = OsuBeatmapInfo.parse(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("osuBeatmap-single.db")), 20140609);
+
+        beatmapInfo.setLocalOffset(0xFFFF);
+        beatmapInfo.setManiaScrollSpeed(0xFF);
+        beatmapInfo.setDisableVideo(true);
+        assertEquals(0xFFFF, beatmapInfo.getLocalOffset());
+        assertEquals(0xFF, beatmapInfo.getManiaScrollSpeed());
+        assertTrue(beatmapInfo.isDisableVideo());
+        assertTrue(beatmapInfo.isModified());
+        beatmapInfo.setDisableVideo(false);
+        assertFalse(beatmapInfo.isDisableVideo());
+    }
+
+    @Test
+    public void testFootprint() throws Exception {
+        // the expected layout: amount of instance fields per type
+        Map<Class<?>, Integer> expected = new HashMap<>();
+        // the strings, the star ratings, md5Hash, timingPoints and timingPointBytes
+        expected.put(Object.class, 13 + 4 + 1 + 1 + 1);
+        // lastModificationTime, lastTimePlayed and lastCheckedTime
+        expected.put(long.class, 3);
+        // sliderVelocity, bpmMin, bpmMax and bpm
+        expected.put(double.class, 4);
+        // drainTime, totalTime, audioPreviewStartTime, beatmapId, beatmapSetId, threadId, lastModificationTime2,
+        // gradesRaw and flags
+        expected.put(int.class, 9);
+        // approachRate, circleSize, hpDrain, overallDifficulty and stackLeniency
+        expected.put(float.class, 5);
+        // hitcircleCount, sliderCount, spinnerCount, localOffset and onlineOffset
+        expected.put(char.class, 5);
+        // rankedStatusRaw, gameModeRaw and maniaScrollSpeed
+        expected.put(byte.class, 3);
+
+        Map<Class<?>, Integer> actual = new HashMap<>();
+        for (Field field : OsuBeatmapInfo.class.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                Class<?> type = field.getType().isPrimitive() ? field.getType() : Object.class;
+                actual.merge(type, 1, Integer::sum);
+            }
+        }
+        assertEquals(expected, actual);
+
+        // which on 64-bit HotSpot with compressed references (a 12 byte header, 4 bytes per reference, the fields packed
+        // by size and aligned to 8 bytes) is 224 bytes per beatmap
+        int size = 12;
+        for (Map.Entry<Class<?>, Integer> entry : expected.entrySet()) {
+            size += entry.getValue() * fieldSize(entry.getKey());
+        }
+        assertEquals(224, (size + 7) / 8 * 8);
+    }
+
+    @Test
+    public void testRetainedSize() throws Exception {
+        int count = 20000;
+        byte[] file = new OsuDbGenerator().seed(42).beatmapCount(count).generate();
+        OsuDbByteBufferInput input = new OsuDbByteBufferInput(ByteBuffer.wrap(file));
+        OsuDbReader reader = OsuDbReader.open(input);
+        OsuBeatmapInfo[] beatmaps = new OsuBeatmapInfo[count];
+
+        long before = usedHeapAfterGc();
+        for (int i = 0; i < count; ++i) {
+            beatmaps[i] = OsuBeatmapInfo.parse(input, reader.getOsuVersion());
+        }
+        // minus the array itself
+        long retained = (usedHeapAfterGc() - before - 16L - 4L * count) / count;
+        // the record bytes, without the length-prefix of every beatmap
+        long encoded = (file.length - input.remaining()) / count - 4;
+
+        // everything a beatmap holds on to: the 224 bytes of OsuBeatmapInfo itself, the strings, the star ratings and
+        // the timing point bytes. On java 8 that is 2051 bytes per beatmap for these 1147 encoded bytes, strings use 2
+        // bytes per char there.
+        String measured = "retained " + retained + " bytes per beatmap, encoded " + encoded + " bytes";
+        assertTrue(measured, retained > 224 + encoded / 2);
+        assertTrue(measured, retained < 224 + encoded * 3);
+        assertEquals(count, Arrays.stream(beatmaps).filter(b -> b.getTimingPointTable() != null).count());
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        // a single gc is not always a full one, take the lowest of a few
+        for (int i = 0; i < 5; ++i) {
+            memory.gc();
+            Thread.sleep(10);
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    private static int fieldSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == char.class || type == short.class) {
+            return 2;
+        } else if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        // int, float and compressed references
+        return 4;
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.omkelderman.osudbparser;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OsuDbDiffTest {
+
+    @Test
+    public void testBetween() throws Exception {
+        byte[] oldFormat = TestFiles.readResource("osu!.db");
+        List<byte[]> records = TestFiles.beatmapRecords(oldFormat);
+        OsuDbFile previous = OsuDbFile.parseIncremental(ByteBuffer.wrap(TestFiles.withBeatmapLengths(oldFormat, records)), null);
+
+        // remove the first beatmap and change the mania scroll speed (last byte) of the second one
+        List<byte[]> changedRecords = new ArrayList<>(records.subList(1, records.size()));
+        byte[] changed = changedRecords.get(0).clone();
+        changed[changed.length - 1] ^= 0x01;
+        changedRecords.set(0, changed);
+        OsuDbFile current = OsuDbFile.parseIncremental(ByteBuffer.wrap(TestFiles.withBeatmapLengths(oldFormat, changedRecords)), previous);
+
+        OsuDbDiff diff = OsuDbDiff.between(previous, current);
+        assertFalse(diff.isEmpty());
+        assertSame(previous, diff.getPrevious());
+        assertSame(current, diff.getCurrent());
+        assertEquals(Collections.singletonList(previous.getBeatmaps()[0]), diff.getRemoved());
+        assertEquals(Collections.singletonList(current.getBeatmaps()[0]), diff.getModified());
+        assertTrue(diff.getAdded().isEmpty());
+
+        OsuDbDiff reversed = OsuDbDiff.between(current, previous);
+        assertEquals(Collections.singletonList(previous.getBeatmaps()[0]), reversed.getAdded());
+        assertTrue(reversed.getRemoved().isEmpty());
+    }
+
+    @Test
+    public void testBetweenSame() throws Exception {
+        OsuDbFile file = OsuDbFile.parse(TestFiles.resourcePath("osu!.db"));
+
+        assertTrue(OsuDbDiff.between(file, file).isEmpty());
+    }
+}
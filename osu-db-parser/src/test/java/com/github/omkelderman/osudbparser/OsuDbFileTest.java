@@ -0,0 +1,359 @@
+package com.github.omkelderman.osudbparser;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class OsuDbFileTest {
+
+    @Test
+    public void testParse() throws IOException {
+        OsuDbFile file = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db"));
+
+        assertEquals(20160226, file.getOsuVersion());
+        assertEquals(9, file.getFolderCount());
+        assertTrue(file.isAccountUnlocked());
+        assertEquals("oliebol", file.getPlayerName());
+        assertEquals(33, file.getBeatmaps().length);
+    }
+
+    @Test(expected = IOException.class)
+    public void testParseOutdatedOsuVersion() throws IOException {
+        OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!-outdated.db"));
+    }
+
+    @Test
+    public void testParsePath() throws Exception {
+        OsuDbFile expected = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db"));
+        OsuDbFile file = OsuDbFile.parse(TestFiles.resourcePath("osu!.db"));
+
+        assertEquals(20160226, file.getOsuVersion());
+        assertEquals(9, file.getFolderCount());
+        assertTrue(file.isAccountUnlocked());
+        assertEquals("oliebol", file.getPlayerName());
+        TestFiles.assertBeatmapsEquals(expected.getBeatmaps(), file.getBeatmaps());
+    }
+
+    @Test
+    public void testParsePathWithBeatmapLengths() throws Exception {
+        OsuDbFile expected = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db"));
+        Path path = TestFiles.writeTempFile(TestFiles.withBeatmapLengths(TestFiles.readResource("osu!.db")));
+
+        OsuDbFile fromStream = OsuDbFile.parse(path.toString());
+        OsuDbFile fromMapped = OsuDbFile.parse(path);
+
+        assertEquals(TestFiles.BEATMAP_LENGTH_VERSION, fromMapped.getOsuVersion());
+        assertEquals("oliebol", fromMapped.getPlayerName());
+        TestFiles.assertBeatmapsEquals(expected.getBeatmaps(), fromStream.getBeatmaps());
+        TestFiles.assertBeatmapsEquals(expected.getBeatmaps(), fromMapped.getBeatmaps());
+    }
+
+    @Test(expected = IOException.class)
+    public void testParsePathOutdatedOsuVersion() throws Exception {
+        OsuDbFile.parse(TestFiles.resourcePath("osu!-outdated.db"));
+    }
+
+    @Test
+    public void testParseIndexed() throws Exception {
+        OsuBeatmapInfo[] expected = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps();
+        OsuDbFile file = OsuDbFile.parseIndexed(TestFiles.resourcePath("osu!.db"));
+
+        assertEquals(20160226, file.getOsuVersion());
+        assertEquals("oliebol", file.getPlayerName());
+        assertEquals(33, file.getBeatmapCount());
+        TestFiles.assertBeatmapEquals(expected[20], file.beatmapAt(20));
+        TestFiles.assertBeatmapEquals(expected[0], file.beatmapAt(0));
+        TestFiles.assertBeatmapEquals(expected[32], file.beatmapAt(32));
+        TestFiles.assertBeatmapsEquals(expected, file.getBeatmaps());
+    }
+
+    @Test
+    public void testParseIndexedWithBeatmapLengths() throws Exception {
+        OsuBeatmapInfo[] expected = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps();
+        Path path = TestFiles.writeTempFile(TestFiles.withBeatmapLengths(TestFiles.readResource("osu!.db")));
+        OsuDbFile file = OsuDbFile.parseIndexed(path);
+
+        assertEquals(33, file.getBeatmapCount());
+        for (int i = expected.length - 1; i >= 0; --i) {
+            TestFiles.assertBeatmapEquals(expected[i], file.beatmapAt(i));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testBeatmapAtOutOfBounds() throws Exception {
+        OsuDbFile.parseIndexed(TestFiles.resourcePath("osu!.db")).beatmapAt(33);
+    }
+
+    @Test
+    public void testParseParallel() throws Exception {
+        OsuBeatmapInfo[] expected = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps();
+        Path path = TestFiles.writeTempFile(TestFiles.withBeatmapLengths(TestFiles.readResource("osu!.db")));
+
+        OsuDbFile file = OsuDbFile.parseParallel(path, 4);
+
+        assertEquals(TestFiles.BEATMAP_LENGTH_VERSION, file.getOsuVersion());
+        assertEquals("oliebol", file.getPlayerName());
+        assertEquals(33, file.getBeatmapCount());
+        TestFiles.assertBeatmapsEquals(expected, file.getBeatmaps());
+        TestFiles.assertBeatmapsEquals(expected, OsuDbFile.parseParallel(TestFiles.resourcePath("osu!.db"), 2).getBeatmaps());
+    }
+
+    @Test
+    public void testParseFields() throws Exception {
+        OsuBeatmapInfo[] expected = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps();
+        OsuDbFile file = OsuDbFile.parse(TestFiles.resourcePath("osu!.db"), EnumSet.of(OsuBeatmapInfo.Field.MD5_BEATMAP_HASH));
+
+        assertEquals("oliebol", file.getPlayerName());
+        assertEquals(expected.length, file.getBeatmaps().length);
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals(expected[i].getMd5BeatmapHash(), file.getBeatmaps()[i].getMd5BeatmapHash());
+            assertNull(file.getBeatmaps()[i].getFolderName());
+        }
+    }
+
+    @Test
+    public void testGetBeatmapByMd5() throws Exception {
+        OsuDbFile file = OsuDbFile.parseIndexed(TestFiles.resourcePath("osu!.db"));
+        OsuBeatmapInfo[] beatmaps = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps();
+
+        for (OsuBeatmapInfo beatmap : beatmaps) {
+            String hash = beatmap.getMd5BeatmapHash();
+            assertEquals(hash, file.getBeatmapByMd5(hash).getMd5BeatmapHash());
+            assertEquals(hash, file.getBeatmapByMd5(Md5Hash.parse(hash.toUpperCase())).getMd5BeatmapHash());
+        }
+        assertNull(file.getBeatmapByMd5("00000000000000000000000000000000"));
+        assertNull(file.getBeatmapByMd5("not a hash"));
+    }
+
+    @Test
+    public void testGetBeatmapByMd5BinaryOnly() throws Exception {
+        OsuDbFile expected = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db"));
+        OsuDbFile file = OsuDbFile.parse(TestFiles.resourcePath("osu!.db"),
+                EnumSet.of(OsuBeatmapInfo.Field.MD5_HASH, OsuBeatmapInfo.Field.BEATMAP_ID));
+
+        for (OsuBeatmapInfo beatmap : expected.getBeatmaps()) {
+            OsuBeatmapInfo found = file.getBeatmapByMd5(beatmap.getMd5BeatmapHash());
+            assertNull(found.getMd5BeatmapHash());
+            assertEquals(beatmap.getMd5Hash(), found.getMd5Hash());
+            assertEquals(beatmap.getBeatmapId(), found.getBeatmapId());
+        }
+    }
+
+    @Test
+    public void testSecondaryIndexes() throws Exception {
+        OsuBeatmapInfo[] beatmaps = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps();
+        OsuDbFile file = OsuDbFile.parseIndexed(TestFiles.resourcePath("osu!.db"));
+
+        for (OsuBeatmapInfo beatmap : beatmaps) {
+            if (beatmap.getBeatmapId() != 0) {
+                assertEquals(firstWithId(beatmaps, beatmap.getBeatmapId()).getMd5BeatmapHash(),
+                        file.getBeatmapById(beatmap.getBeatmapId()).getMd5BeatmapHash());
+            }
+            assertHashesEquals(filter(beatmaps, b -> b.getBeatmapSetId() == beatmap.getBeatmapSetId() && b.getBeatmapSetId() != 0),
+                    file.getBeatmapsBySetId(beatmap.getBeatmapSetId()));
+            assertHashesEquals(filter(beatmaps, b -> b.getFolderName().equals(beatmap.getFolderName())),
+                    file.getBeatmapsByFolderName(beatmap.getFolderName()));
+        }
+        assertNull(file.getBeatmapById(0));
+        assertNull(file.getBeatmapById(Long.MAX_VALUE));
+        assertEquals(0, file.getBeatmapsBySetId(Long.MAX_VALUE).length);
+        assertEquals(0, file.getBeatmapsByFolderName("does not exist").length);
+    }
+
+    private static OsuBeatmapInfo firstWithId(OsuBeatmapInfo[] beatmaps, long beatmapId) {
+        return filter(beatmaps, b -> b.getBeatmapId() == beatmapId)[0];
+    }
+
+    private static OsuBeatmapInfo[] filter(OsuBeatmapInfo[] beatmaps, Predicate<OsuBeatmapInfo> predicate) {
+        return Arrays.stream(beatmaps).filter(predicate).toArray(OsuBeatmapInfo[]::new);
+    }
+
+    private static void assertHashesEquals(OsuBeatmapInfo[] expected, OsuBeatmapInfo[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals(expected[i].getMd5BeatmapHash(), actual[i].getMd5BeatmapHash());
+        }
+    }
+
+    @Test
+    public void testParseIncremental() throws Exception {
+        byte[] oldFormat = TestFiles.readResource("osu!.db");
+        List<byte[]> records = TestFiles.beatmapRecords(oldFormat);
+        OsuDbFile first = OsuDbFile.parseIncremental(TestFiles.writeTempFile(TestFiles.withBeatmapLengths(oldFormat, records)), null);
+        TestFiles.assertBeatmapsEquals(OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps(), first.getBeatmaps());
+
+        // remove the first beatmap, change the mania scroll speed (last byte) of another one and add a new one
+        List<byte[]> changedRecords = new ArrayList<>(records.subList(1, records.size()));
+        byte[] changed = changedRecords.get(4).clone();
+        changed[changed.length - 1] ^= 0x01;
+        changedRecords.set(4, changed);
+        byte[] added = records.get(0).clone();
+        added[added.length - 1] ^= 0x02;
+        changedRecords.add(added);
+        Path changedPath = TestFiles.writeTempFile(TestFiles.withBeatmapLengths(oldFormat, changedRecords));
+
+        OsuDbFile second = OsuDbFile.parseIncremental(changedPath, first);
+
+        OsuBeatmapInfo[] beatmaps = second.getBeatmaps();
+        TestFiles.assertBeatmapsEquals(OsuDbFile.parse(changedPath).getBeatmaps(), beatmaps);
+        for (int i = 0; i < beatmaps.length - 1; ++i) {
+            if (i == 4) {
+                assertNotSame(first.getBeatmaps()[i + 1], beatmaps[i]);
+            } else {
+                assertSame("unchanged beatmaps should be reused", first.getBeatmaps()[i + 1], beatmaps[i]);
+            }
+        }
+        assertEquals(records.get(4)[records.get(4).length - 1] ^ 0x01, beatmaps[4].getManiaScrollSpeed());
+
+        // and again, now everything is unchanged
+        OsuDbFile third = OsuDbFile.parseIncremental(changedPath, second);
+        for (int i = 0; i < beatmaps.length; ++i) {
+            assertSame(beatmaps[i], third.getBeatmaps()[i]);
+        }
+    }
+
+    @Test
+    public void testParseIncrementalSkipsModifiedBeatmaps() throws Exception {
+        Path path = TestFiles.writeTempFile(TestFiles.withBeatmapLengths(TestFiles.readResource("osu!.db")));
+        OsuDbFile first = OsuDbFile.parseIncremental(path, null);
+        OsuBeatmapInfo modified = first.getBeatmaps()[3];
+        int localOffset = modified.getLocalOffset();
+        modified.setLocalOffset(localOffset + 1);
+
+        OsuDbFile second = OsuDbFile.parseIncremental(path, first);
+
+        assertNotSame(modified, second.getBeatmaps()[3]);
+        assertEquals(localOffset, second.getBeatmaps()[3].getLocalOffset());
+        assertSame(first.getBeatmaps()[4], second.getBeatmaps()[4]);
+    }
+
+    @Test
+    public void testParseIncrementalDuplicateBeatmaps() throws Exception {
+        byte[] oldFormat = TestFiles.readResource("osu!.db");
+        List<byte[]> records = TestFiles.beatmapRecords(oldFormat);
+        List<byte[]> duplicated = new ArrayList<>(records.subList(0, 2));
+        duplicated.add(records.get(0));
+        Path path = TestFiles.writeTempFile(TestFiles.withBeatmapLengths(oldFormat, duplicated));
+        OsuDbFile first = OsuDbFile.parseIncremental(path, null);
+
+        OsuDbFile second = OsuDbFile.parseIncremental(path, first);
+
+        OsuBeatmapInfo[] beatmaps = second.getBeatmaps();
+        assertSame(first.getBeatmaps()[0], beatmaps[0]);
+        assertSame(first.getBeatmaps()[1], beatmaps[1]);
+        // each previous beatmap is only taken over once
+        assertSame(first.getBeatmaps()[2], beatmaps[2]);
+        assertNotSame(beatmaps[0], beatmaps[2]);
+        TestFiles.assertBeatmapEquals(beatmaps[0], beatmaps[2]);
+
+        // one of the two copies is gone, the other one is still taken over once
+        Path removed = TestFiles.writeTempFile(TestFiles.withBeatmapLengths(oldFormat, new ArrayList<>(duplicated.subList(0, 2))));
+        OsuDbFile third = OsuDbFile.parseIncremental(removed, second);
+        assertSame(beatmaps[0], third.getBeatmaps()[0]);
+    }
+
+    @Test
+    public void testParseIncrementalSameLengthChange() throws Exception {
+        byte[] oldFormat = TestFiles.readResource("osu!.db");
+        List<byte[]> records = TestFiles.beatmapRecords(oldFormat);
+        OsuDbFile first = OsuDbFile.parseIncremental(TestFiles.writeTempFile(TestFiles.withBeatmapLengths(oldFormat, records)), null);
+
+        // change the mania scroll speed and the byte before it, the length and the sum of the bytes stay the same
+        List<byte[]> changedRecords = new ArrayList<>(records);
+        byte[] changed = records.get(2).clone();
+        byte last = changed[changed.length - 1];
+        changed[changed.length - 1] = (byte) (last + 1);
+        changed[changed.length - 2] = (byte) (changed[changed.length - 2] - 1);
+        changedRecords.set(2, changed);
+        Path changedPath = TestFiles.writeTempFile(TestFiles.withBeatmapLengths(oldFormat, changedRecords));
+
+        OsuDbFile second = OsuDbFile.parseIncremental(changedPath, first);
+
+        assertNotSame(first.getBeatmaps()[2], second.getBeatmaps()[2]);
+        assertEquals((last + 1) & 0xFF, second.getBeatmaps()[2].getManiaScrollSpeed());
+        assertSame(first.getBeatmaps()[3], second.getBeatmaps()[3]);
+    }
+
+    @Test
+    public void testParseIncrementalWithoutFingerprints() throws Exception {
+        Path path = TestFiles.resourcePath("osu!.db");
+        OsuDbFile previous = OsuDbFile.parse(path);
+
+        OsuDbFile file = OsuDbFile.parseIncremental(path, previous);
+
+        TestFiles.assertBeatmapsEquals(previous.getBeatmaps(), file.getBeatmaps());
+        assertNotSame(previous.getBeatmaps()[0], file.getBeatmaps()[0]);
+        // the old format works just as well
+        assertSame(file.getBeatmaps()[0], OsuDbFile.parseIncremental(path, file).getBeatmaps()[0]);
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        byte[] bytes = TestFiles.readResource("osu!.db");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        OsuDbFile.parse(TestFiles.resourcePath("osu!.db")).write(out);
+
+        assertArrayEquals(bytes, out.toByteArray());
+    }
+
+    @Test
+    public void testWriteWithBeatmapLengths() throws Exception {
+        byte[] bytes = TestFiles.withBeatmapLengths(TestFiles.readResource("osu!.db"));
+        Path path = TestFiles.writeTempFile(bytes);
+        Path written = TestFiles.writeTempFile(new byte[0]);
+
+        OsuDbFile.parseIndexed(path).write(written);
+
+        assertArrayEquals(bytes, Files.readAllBytes(written));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWriteNotAllFields() throws Exception {
+        OsuDbFile file = OsuDbFile.parse(TestFiles.resourcePath("osu!.db"), EnumSet.of(OsuBeatmapInfo.Field.MD5_BEATMAP_HASH));
+
+        file.write(new ByteArrayOutputStream());
+    }
+
+    @Test
+    public void testParseByteBufferAndChannel() throws Exception {
+        OsuBeatmapInfo[] expected = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps();
+        byte[] bytes = TestFiles.withBeatmapLengths(TestFiles.readResource("osu!.db"));
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+
+        OsuDbFile fromHeap = OsuDbFile.parse(ByteBuffer.wrap(bytes));
+        OsuDbFile fromDirect = OsuDbFile.parse(direct);
+        OsuDbFile fromChannel = OsuDbFile.parse(Channels.newChannel(new ByteArrayInputStream(bytes)));
+        OsuDbFile fromOldFormat;
+        try (FileChannel channel = FileChannel.open(TestFiles.resourcePath("osu!.db"))) {
+            fromOldFormat = OsuDbFile.parse(channel);
+        }
+
+        assertEquals("oliebol", fromChannel.getPlayerName());
+        assertEquals(0, direct.position());
+        TestFiles.assertBeatmapsEquals(expected, fromHeap.getBeatmaps());
+        TestFiles.assertBeatmapsEquals(expected, fromDirect.getBeatmaps());
+        TestFiles.assertBeatmapsEquals(expected, fromChannel.getBeatmaps());
+        TestFiles.assertBeatmapsEquals(expected, fromOldFormat.getBeatmaps());
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.omkelderman.osudbparser;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OsuDbGeneratorTest {
+
+    @Test
+    public void testDeterministic() throws Exception {
+        byte[] first = new OsuDbGenerator().seed(42).beatmapCount(100).generate();
+
+        assertArrayEquals(first, new OsuDbGenerator().seed(42).beatmapCount(100).generate());
+        assertFalse(Arrays.equals(first, new OsuDbGenerator().seed(43).beatmapCount(100).generate()));
+    }
+
+    @Test
+    public void testGenerate() throws Exception {
+        assertGenerated(new OsuDbGenerator().seed(1).beatmapCount(500).timingPoints(2, 5).starRatingCount(3));
+    }
+
+    @Test
+    public void testGenerateOldFormat() throws Exception {
+        assertGenerated(new OsuDbGenerator().seed(1).beatmapCount(500).osuVersion(20160226).timingPoints(2, 5).starRatingCount(3));
+    }
+
+    private static void assertGenerated(OsuDbGenerator generator) throws Exception {
+        byte[] bytes = generator.generate();
+        OsuDbFile file = OsuDbFile.parse(ByteBuffer.wrap(bytes));
+
+        assertEquals(500, file.getBeatmapCount());
+        assertEquals(125, file.getFolderCount());
+        for (OsuBeatmapInfo beatmap : file.getBeatmaps()) {
+            assertTrue(beatmap.getTimingPoints().length >= 2 && beatmap.getTimingPoints().length <= 5);
+            assertTrue(beatmap.getBpmMin() >= 100 && beatmap.getBpmMax() < 250);
+            assertTrue(Double.isNaN(beatmap.getStandardStarRating().forModArray(4)));
+            assertFalse(Double.isNaN(beatmap.getManiaStarRating().forModArray(8)));
+        }
+        // sets share their folder
+        assertEquals(4, file.getBeatmapsByFolderName(file.getBeatmaps()[0].getFolderName()).length);
+
+        // the same bytes as osu! would write
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        file.write(out);
+        assertArrayEquals(bytes, out.toByteArray());
+    }
+
+    @Test
+    public void testNoStarRatings() throws Exception {
+        OsuDbFile file = OsuDbFile.parse(ByteBuffer.wrap(new OsuDbGenerator().beatmapCount(10).starRatingCount(0).generate()));
+
+        assertNull(file.getBeatmaps()[9].getTaikoStarRating());
+    }
+
+    @Test
+    public void testStringLength() throws Exception {
+        OsuDbFile file = OsuDbFile.parse(ByteBuffer.wrap(new OsuDbGenerator().beatmapCount(50).stringLength(10, 10).unicodeFraction(1).generate()));
+
+        for (OsuBeatmapInfo beatmap : file.getBeatmaps()) {
+            assertEquals(10, beatmap.getArtistName().length());
+            assertEquals(10, beatmap.getSongTitleUnicode().length());
+            assertTrue(beatmap.getSongTitleUnicode().charAt(0) > 0x7F);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTimingPoints() throws Exception {
+        new OsuDbGenerator().timingPoints(0, 5);
+    }
+}
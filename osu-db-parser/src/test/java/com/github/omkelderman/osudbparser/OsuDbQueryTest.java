@@ -0,0 +1,117 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.OsuBeatmapInfo.Field;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+public class OsuDbQueryTest {
+
+    private static OsuBeatmapInfo[] allBeatmaps() throws Exception {
+        return OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps();
+    }
+
+    private static void assertQuery(OsuDbQuery query, Predicate<OsuBeatmapInfo> expectedFilter) throws Exception {
+        OsuBeatmapInfo[] expected = Arrays.stream(allBeatmaps()).filter(expectedFilter).toArray(OsuBeatmapInfo[]::new);
+        byte[] oldFormat = TestFiles.readResource("osu!.db");
+
+        for (byte[] bytes : new byte[][]{oldFormat, TestFiles.withBeatmapLengths(oldFormat)}) {
+            List<OsuBeatmapInfo> result = query.execute(new ByteArrayInputStream(bytes));
+            TestFiles.assertBeatmapsEquals(expected, result.toArray(new OsuBeatmapInfo[0]));
+            result = query.execute(TestFiles.writeTempFile(bytes));
+            TestFiles.assertBeatmapsEquals(expected, result.toArray(new OsuBeatmapInfo[0]));
+        }
+    }
+
+    @Test
+    public void testWhere() throws Exception {
+        Predicate<OsuBeatmapInfo> highAr = b -> b.getApproachRate() >= 8;
+        assertQuery(OsuDbQuery.where(Field.APPROACH_RATE, highAr), highAr);
+    }
+
+    @Test
+    public void testAnd() throws Exception {
+        Predicate<OsuBeatmapInfo> stars = b -> b.getStandardStarRating() != null && b.getStandardStarRating().forMods(0) > 3;
+        Predicate<OsuBeatmapInfo> osu = b -> b.getGameMode() == OsuBeatmapInfo.GameMode.OSU;
+        Predicate<OsuBeatmapInfo> hard = b -> b.getOverallDifficulty() >= 6;
+
+        // the predicates are not in file order, GAME_MODE is stored after the others
+        assertQuery(OsuDbQuery.where(Field.GAME_MODE, osu).and(Field.STANDARD_STAR_RATING, stars).and(Field.OVERALL_DIFFICULTY, hard),
+                osu.and(stars).and(hard));
+    }
+
+    @Test
+    public void testSameFieldTwice() throws Exception {
+        Predicate<OsuBeatmapInfo> min = b -> b.getDrainTime() >= 60;
+        Predicate<OsuBeatmapInfo> max = b -> b.getDrainTime() <= 180;
+        assertQuery(OsuDbQuery.where(Field.DRAIN_TIME, min).and(Field.DRAIN_TIME, max), min.and(max));
+    }
+
+    @Test
+    public void testCalculatedFields() throws Exception {
+        OsuBeatmapInfo first = allBeatmaps()[0];
+        Predicate<OsuBeatmapInfo> bpm = b -> b.getBpm() > 150;
+        Predicate<OsuBeatmapInfo> hash = b -> first.getMd5Hash().equals(b.getMd5Hash());
+
+        assertQuery(OsuDbQuery.where(Field.BPM, bpm), bpm);
+        assertQuery(OsuDbQuery.where(Field.MD5_HASH, hash), hash);
+    }
+
+    @Test
+    public void testSelect() throws Exception {
+        OsuBeatmapInfo[] all = allBeatmaps();
+        List<OsuBeatmapInfo> result = OsuDbQuery.where(Field.CIRCLE_SIZE, b -> b.getCircleSize() >= 4)
+                .select(EnumSet.of(Field.BEATMAP_ID))
+                .execute(TestFiles.resourcePath("osu!.db"));
+
+        OsuBeatmapInfo[] expected = Arrays.stream(all).filter(b -> b.getCircleSize() >= 4).toArray(OsuBeatmapInfo[]::new);
+        assertEquals(expected.length, result.size());
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals(expected[i].getBeatmapId(), result.get(i).getBeatmapId());
+            assertEquals(expected[i].getCircleSize(), result.get(i).getCircleSize(), 0F);
+            assertNull(result.get(i).getArtistName());
+        }
+    }
+
+    @Test
+    public void testPredicateFieldsFirst() throws Exception {
+        OsuBeatmapInfo[] all = allBeatmaps();
+        Path path = TestFiles.writeTempFile(TestFiles.withBeatmapLengths(TestFiles.readResource("osu!.db")));
+        List<OsuBeatmapInfo> tested = new ArrayList<>();
+        List<OsuBeatmapInfo> result = OsuDbQuery.where(Field.GAME_MODE, b -> {
+            // the fields before GAME_MODE must not be decoded yet
+            assertNull(b.getArtistName());
+            assertNull(b.getStandardStarRating());
+            assertNull(b.getTimingPointTable());
+            tested.add(b);
+            // accept every other beatmap
+            return tested.size() % 2 == 0;
+        }).execute(path);
+
+        assertEquals(all.length, tested.size());
+        OsuBeatmapInfo[] expected = new OsuBeatmapInfo[all.length / 2];
+        for (int i = 0; i < expected.length; ++i) {
+            expected[i] = all[2 * i + 1];
+            assertSame(tested.get(2 * i + 1), result.get(i));
+        }
+        TestFiles.assertBeatmapsEquals(expected, result.toArray(new OsuBeatmapInfo[0]));
+        for (int i = 0; i < tested.size(); i += 2) {
+            // rejected beatmaps are never decoded any further
+            assertNull(tested.get(i).getArtistName());
+            assertNull(tested.get(i).getTimingPointTable());
+        }
+    }
+
+    @Test
+    public void testRejectAll() throws Exception {
+        assertQuery(OsuDbQuery.where(Field.ARTIST_NAME, b -> false), b -> false);
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.StringPool;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class OsuDbReaderTest {
+
+    @Test
+    public void testHeader() throws IOException {
+        try (OsuDbReader reader = OsuDbReader.open(ClassLoader.getSystemResourceAsStream("osu!.db"))) {
+            assertEquals(20160226, reader.getOsuVersion());
+            assertEquals(9, reader.getFolderCount());
+            assertTrue(reader.isAccountUnlocked());
+            assertEquals("oliebol", reader.getPlayerName());
+            assertEquals(33, reader.getBeatmapCount());
+            assertEquals(0, reader.getBeatmapsRead());
+        }
+    }
+
+    @Test
+    public void testNextBeatmap() throws Exception {
+        OsuBeatmapInfo[] expected = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps();
+
+        try (OsuDbReader reader = OsuDbReader.open(TestFiles.resourcePath("osu!.db"))) {
+            OsuBeatmapInfo[] beatmaps = new OsuBeatmapInfo[reader.getBeatmapCount()];
+            for (int i = 0; reader.hasNextBeatmap(); ++i) {
+                beatmaps[i] = reader.nextBeatmap();
+            }
+            assertEquals(33, reader.getBeatmapsRead());
+            TestFiles.assertBeatmapsEquals(expected, beatmaps);
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNextBeatmapAfterLast() throws IOException {
+        try (OsuDbReader reader = OsuDbReader.open(ClassLoader.getSystemResourceAsStream("osu!.db"))) {
+            while (reader.hasNextBeatmap()) {
+                reader.nextBeatmap();
+            }
+            reader.nextBeatmap();
+        }
+    }
+
+    @Test
+    public void testBeatmapsStream() throws Exception {
+        OsuBeatmapInfo[] expected = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps();
+        byte[] bytes = TestFiles.withBeatmapLengths(TestFiles.readResource("osu!.db"));
+
+        try (Stream<OsuBeatmapInfo> beatmaps = OsuDbReader.open(TestFiles.writeTempFile(bytes)).beatmaps()) {
+            TestFiles.assertBeatmapsEquals(expected, beatmaps.toArray(OsuBeatmapInfo[]::new));
+        }
+    }
+
+    @Test
+    public void testBeatmapsStreamRemaining() throws IOException {
+        try (OsuDbReader reader = OsuDbReader.open(ClassLoader.getSystemResourceAsStream("osu!.db"))) {
+            reader.nextBeatmap();
+            assertEquals(32, reader.beatmaps().count());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenOutdatedOsuVersion() throws IOException {
+        OsuDbReader.open(ClassLoader.getSystemResourceAsStream("osu!-outdated.db"));
+    }
+
+    @Test
+    public void testStringPool() throws Exception {
+        OsuBeatmapInfo[] expected = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps();
+        byte[] oldFormat = TestFiles.readResource("osu!.db");
+
+        // the newer format reads every beatmap through a sub-input, which should use the same pool
+        for (byte[] bytes : new byte[][]{oldFormat, TestFiles.withBeatmapLengths(oldFormat)}) {
+            try (OsuDbReader reader = OsuDbReader.open(new ByteArrayInputStream(bytes))) {
+                reader.setStringPool(new StringPool());
+                OsuBeatmapInfo[] beatmaps = reader.beatmaps().toArray(OsuBeatmapInfo[]::new);
+                TestFiles.assertBeatmapsEquals(expected, beatmaps);
+
+                boolean shared = false;
+                for (int i = 1; i < beatmaps.length; ++i) {
+                    if (beatmaps[i].getFolderName().equals(beatmaps[i - 1].getFolderName())) {
+                        assertSame(beatmaps[i - 1].getFolderName(), beatmaps[i].getFolderName());
+                        assertSame(beatmaps[i - 1].getArtistName(), beatmaps[i].getArtistName());
+                        shared = true;
+                    }
+                }
+                assertTrue("test file should contain multiple difficulties of a beatmap set", shared);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.omkelderman.osudbparser;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class OsuDbRewriterTest {
+
+    @Test
+    public void testWriteUnchanged() throws Exception {
+        byte[] bytes = TestFiles.readResource("osu!.db");
+        Path target = TestFiles.writeTempFile(new byte[0]);
+
+        try (OsuDbRewriter rewriter = OsuDbRewriter.open(TestFiles.resourcePath("osu!.db"))) {
+            // only getting a beatmap does not change it
+            rewriter.beatmapAt(3);
+            rewriter.write(target);
+        }
+
+        assertArrayEquals(bytes, Files.readAllBytes(target));
+    }
+
+    @Test
+    public void testWriteChanged() throws Exception {
+        assertWriteChanged(TestFiles.readResource("osu!.db"));
+    }
+
+    @Test
+    public void testWriteChangedWithBeatmapLengths() throws Exception {
+        assertWriteChanged(TestFiles.withBeatmapLengths(TestFiles.readResource("osu!.db")));
+    }
+
+    private static void assertWriteChanged(byte[] bytes) throws Exception {
+        Path source = TestFiles.writeTempFile(bytes);
+        Path target = TestFiles.writeTempFile(new byte[0]);
+
+        try (OsuDbRewriter rewriter = OsuDbRewriter.open(source)) {
+            assertEquals(33, rewriter.getBeatmapCount());
+            assertSame(rewriter.beatmapAt(5), rewriter.beatmapAt(5));
+            change(rewriter.beatmapAt(5));
+            change(rewriter.beatmapAt(0));
+            change(rewriter.beatmapAt(32));
+            rewriter.write(target);
+        }
+
+        // the same as encoding the whole file
+        OsuDbFile expected = OsuDbFile.parse(source);
+        change(expected.getBeatmaps()[5]);
+        change(expected.getBeatmaps()[0]);
+        change(expected.getBeatmaps()[32]);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        expected.write(out);
+        assertArrayEquals(out.toByteArray(), Files.readAllBytes(target));
+
+        OsuBeatmapInfo[] original = OsuDbFile.parse(source).getBeatmaps();
+        OsuBeatmapInfo[] written = OsuDbFile.parse(target).getBeatmaps();
+        assertEquals(1234, written[5].getLocalOffset());
+        assertEquals(!original[5].isDisableVideo(), written[5].isDisableVideo());
+        TestFiles.assertBeatmapEquals(original[6], written[6]);
+    }
+
+    private static void change(OsuBeatmapInfo beatmap) {
+        beatmap.setLocalOffset(1234);
+        beatmap.setDisableVideo(!beatmap.isDisableVideo());
+    }
+
+    @Test(expected = EOFException.class)
+    public void testWriteTruncatedSource() throws Exception {
+        Path source = TestFiles.writeTempFile(TestFiles.readResource("osu!.db"));
+
+        try (OsuDbRewriter rewriter = OsuDbRewriter.open(source)) {
+            rewriter.beatmapAt(20).setDisableVideo(true);
+            try (FileChannel channel = FileChannel.open(source, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() / 4);
+            }
+            rewriter.write(Channels.newChannel(new ByteArrayOutputStream()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteToSource() throws Exception {
+        Path source = TestFiles.writeTempFile(TestFiles.readResource("osu!.db"));
+
+        try (OsuDbRewriter rewriter = OsuDbRewriter.open(source)) {
+            rewriter.write(source);
+        }
+    }
+
+    @Test
+    public void testSetters() throws Exception {
+        try (OsuDbRewriter rewriter = OsuDbRewriter.open(TestFiles.resourcePath("osu!.db"))) {
+            OsuBeatmapInfo beatmap = rewriter.beatmapAt(0);
+            assertFalse(beatmap.isModified());
+
+            beatmap.setManiaScrollSpeed(30);
+
+            assertTrue(beatmap.isModified());
+            assertEquals(30, beatmap.getManiaScrollSpeed());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetLocalOffsetOutOfBounds() throws Exception {
+        try (OsuDbRewriter rewriter = OsuDbRewriter.open(TestFiles.resourcePath("osu!.db"))) {
+            rewriter.beatmapAt(0).setLocalOffset(0x10000);
+        }
+    }
+}
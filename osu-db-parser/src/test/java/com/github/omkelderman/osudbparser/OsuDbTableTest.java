@@ -0,0 +1,152 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbOutputStream;
+import com.github.omkelderman.osudbparser.io.StringPool;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OsuDbTableTest {
+
+    @Test
+    public void testHeader() throws Exception {
+        OsuDbTable table = OsuDbTable.parse(TestFiles.resourcePath("osu!.db"));
+
+        assertEquals(20160226, table.getOsuVersion());
+        assertEquals(9, table.getFolderCount());
+        assertTrue(table.isAccountUnlocked());
+        assertEquals("oliebol", table.getPlayerName());
+        assertEquals(33, table.getRowCount());
+        assertEquals(33, table.getBeatmapId().length);
+        assertEquals(33, table.getFolderName().length);
+    }
+
+    @Test
+    public void testRows() throws Exception {
+        OsuBeatmapInfo[] expected = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps();
+        OsuDbTable table = OsuDbTable.parse(ClassLoader.getSystemResourceAsStream("osu!.db"));
+
+        for (int row = 0; row < expected.length; ++row) {
+            TestFiles.assertBeatmapEquals(expected[row], table.getRow(row));
+        }
+    }
+
+    @Test
+    public void testColumns() throws Exception {
+        OsuBeatmapInfo[] expected = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps();
+        byte[] bytes = TestFiles.withBeatmapLengths(TestFiles.readResource("osu!.db"));
+        OsuDbTable table = OsuDbTable.parse(TestFiles.writeTempFile(bytes));
+
+        for (int row = 0; row < expected.length; ++row) {
+            assertEquals(expected[row].getBeatmapId(), table.getBeatmapId()[row]);
+            assertEquals(expected[row].getApproachRate(), table.getApproachRate()[row], 0F);
+            assertEquals(expected[row].getOverallDifficulty(), table.getOverallDifficulty()[row], 0F);
+            assertEquals(expected[row].getDrainTime(), table.getDrainTime()[row]);
+            assertEquals(expected[row].getBpm(), table.getBpm()[row], 0D);
+            assertEquals(expected[row].getMd5BeatmapHash(), table.getMd5BeatmapHash()[row]);
+        }
+    }
+
+    @Test
+    public void testStarRatingColumns() throws Exception {
+        OsuBeatmapInfo[] expected = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps();
+        OsuDbTable table = OsuDbTable.parse(ClassLoader.getSystemResourceAsStream("osu!.db"));
+
+        long hardRockDoubleTime = 16 | 64;
+        for (int row = 0; row < expected.length; ++row) {
+            StarRating standard = expected[row].getStandardStarRating();
+            StarRating mania = expected[row].getManiaStarRating();
+            assertEquals(standard == null ? Double.NaN : standard.forNoMod(), table.getStandardStarRatingColumn(0)[row], 0D);
+            assertEquals(standard == null ? Double.NaN : standard.forMods(hardRockDoubleTime), table.getStandardStarRatingColumn(hardRockDoubleTime)[row], 0D);
+            assertEquals(mania == null ? Double.NaN : mania.forNoMod(), table.getManiaStarRatingColumn(0)[row], 0D);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStarRatingColumnInvalidMods() throws Exception {
+        OsuDbTable.parse(TestFiles.resourcePath("osu!.db")).getStandardStarRatingColumn(2 | 16);
+    }
+
+    @Test
+    public void testUnknownGradeAndGameModeRoundTrip() throws Exception {
+        byte[] file = TestFiles.readResource("osu!.db");
+        List<byte[]> records = TestFiles.beatmapRecords(file);
+        byte[] record = records.get(0);
+        OsuBeatmapInfo beatmap = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps()[0];
+        // the grades follow the beatmap id, beatmap set id and thread id, then come the local offset, stack leniency
+        // and game mode
+        ByteBuffer ids = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+        ids.putInt((int) beatmap.getBeatmapId()).putInt((int) beatmap.getBeatmapSetId()).putInt((int) beatmap.getThreadId());
+        int grades = indexOf(record, ids.array()) + 12;
+        record[grades] = 0x42;
+        record[grades + 4 + 2 + 4] = 7;
+
+        OsuDbTable table = OsuDbTable.parse(TestFiles.writeTempFile(TestFiles.withBeatmapLengths(file, records)));
+
+        assertEquals(0x42, table.getStandardGradeRaw()[0]);
+        assertNull(table.getStandardGrade(0));
+        assertEquals(7, table.getGameModeRaw()[0]);
+        assertNull(table.getGameMode(0));
+        assertEquals(beatmap.getTaikoGrade(), table.getTaikoGrade(0));
+
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        try (OsuDbOutputStream out = new OsuDbOutputStream(written)) {
+            table.getRow(0).write(out, table.getOsuVersion());
+        }
+        byte[] expected = new byte[record.length + 4];
+        ByteBuffer.wrap(expected).order(ByteOrder.LITTLE_ENDIAN).putInt(record.length).put(record);
+        assertArrayEquals(expected, written.toByteArray());
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part) {
+        outer:
+        for (int i = 0; i + part.length <= bytes.length; ++i) {
+            for (int j = 0; j < part.length; ++j) {
+                if (bytes[i + j] != part[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new AssertionError("not found");
+    }
+
+    @Test
+    public void testEqualStringsAreShared() throws IOException {
+        OsuDbTable table = OsuDbTable.parse(ClassLoader.getSystemResourceAsStream("osu!.db"));
+
+        String[] folderNames = table.getFolderName();
+        String[] creatorNames = table.getCreatorName();
+        for (int i = 0; i < folderNames.length; ++i) {
+            for (int j = i + 1; j < folderNames.length; ++j) {
+                if (folderNames[i].equals(folderNames[j])) {
+                    assertSame(folderNames[i], folderNames[j]);
+                }
+                if (creatorNames[i].equals(creatorNames[j])) {
+                    assertSame(creatorNames[i], creatorNames[j]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testKeepsStringPoolOfReader() throws Exception {
+        StringPool pool = new StringPool();
+        try (OsuDbReader reader = OsuDbReader.open(TestFiles.resourcePath("osu!.db"))) {
+            reader.setStringPool(pool);
+            OsuDbTable.parse(reader);
+            assertSame(pool, reader.getStringPool());
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRowOutOfBounds() throws Exception {
+        OsuDbTable.parse(TestFiles.resourcePath("osu!.db")).getRow(33);
+    }
+}
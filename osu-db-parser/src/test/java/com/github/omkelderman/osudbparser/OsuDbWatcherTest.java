@@ -0,0 +1,133 @@
+package com.github.omkelderman.osudbparser;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class OsuDbWatcherTest {
+
+    @Test
+    public void testWatch() throws Exception {
+        byte[] oldFormat = TestFiles.readResource("osu!.db");
+        List<byte[]> records = TestFiles.beatmapRecords(oldFormat);
+        Path dir = Files.createTempDirectory("osu");
+        Path path = dir.resolve("osu!.db");
+        Files.write(path, TestFiles.withBeatmapLengths(oldFormat, records));
+
+        try (OsuDbWatcher watcher = OsuDbWatcher.watch(path, 50)) {
+            BlockingQueue<OsuDbDiff> diffs = new LinkedBlockingQueue<>();
+            watcher.addListener(diffs::add);
+            OsuDbFile initial = watcher.getCurrent();
+            assertEquals(33, initial.getBeatmapCount());
+
+            // write it in two parts, like a burst of writes
+            byte[] changed = TestFiles.withBeatmapLengths(oldFormat, new ArrayList<>(records.subList(0, 30)));
+            Files.write(path, Arrays.copyOf(changed, changed.length / 2));
+            Files.write(path, changed);
+
+            OsuDbDiff diff = diffs.poll(30, TimeUnit.SECONDS);
+            assertNotNull("should be notified of the change", diff);
+            assertSame(initial, diff.getPrevious());
+            assertSame(watcher.getCurrent(), diff.getCurrent());
+            assertEquals(30, diff.getCurrent().getBeatmapCount());
+            assertTrue(diff.getAdded().isEmpty());
+            assertTrue(diff.getModified().isEmpty());
+            assertEquals(3, diff.getRemoved().size());
+        } finally {
+            Files.deleteIfExists(path);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testCorruptWrite() throws Exception {
+        byte[] oldFormat = TestFiles.readResource("osu!.db");
+        List<byte[]> records = TestFiles.beatmapRecords(oldFormat);
+        Path dir = Files.createTempDirectory("osu");
+        Path path = dir.resolve("osu!.db");
+        Files.write(path, TestFiles.withBeatmapLengths(oldFormat, records));
+
+        try (OsuDbWatcher watcher = OsuDbWatcher.watch(path, 50)) {
+            BlockingQueue<OsuDbDiff> diffs = new LinkedBlockingQueue<>();
+            BlockingQueue<Exception> errors = new LinkedBlockingQueue<>();
+            watcher.addListener(new OsuDbWatcher.Listener() {
+                @Override
+                public void onChange(OsuDbDiff diff) {
+                    diffs.add(diff);
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    errors.add(e);
+                }
+            });
+            OsuDbFile initial = watcher.getCurrent();
+
+            // the artist name of the first beatmap gets a length that does not fit in an int
+            List<byte[]> corrupt = new ArrayList<>(records);
+            byte[] record = corrupt.get(0).clone();
+            assertEquals(0x0B, record[0]);
+            byte[] negativeLength = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+            System.arraycopy(negativeLength, 0, record, 1, negativeLength.length);
+            corrupt.set(0, record);
+            Files.write(path, TestFiles.withBeatmapLengths(oldFormat, corrupt));
+
+            assertNotNull("should be notified of the error", errors.poll(30, TimeUnit.SECONDS));
+            assertSame(initial, watcher.getCurrent());
+
+            // and it keeps watching
+            Files.write(path, TestFiles.withBeatmapLengths(oldFormat, new ArrayList<>(records.subList(0, 30))));
+            OsuDbDiff diff = diffs.poll(30, TimeUnit.SECONDS);
+            assertNotNull("should be notified of the change", diff);
+            assertSame(initial, diff.getPrevious());
+            assertEquals(30, watcher.getCurrent().getBeatmapCount());
+        } finally {
+            Files.deleteIfExists(path);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testListenerThrows() throws Exception {
+        byte[] oldFormat = TestFiles.readResource("osu!.db");
+        List<byte[]> records = TestFiles.beatmapRecords(oldFormat);
+        Path dir = Files.createTempDirectory("osu");
+        Path path = dir.resolve("osu!.db");
+        Files.write(path, TestFiles.withBeatmapLengths(oldFormat, records));
+
+        try (OsuDbWatcher watcher = OsuDbWatcher.watch(path, 50)) {
+            AtomicInteger thrown = new AtomicInteger();
+            BlockingQueue<OsuDbDiff> diffs = new LinkedBlockingQueue<>();
+            watcher.addListener(diff -> {
+                thrown.incrementAndGet();
+                throw new IllegalStateException("listener failed");
+            });
+            watcher.addListener(diffs::add);
+
+            Files.write(path, TestFiles.withBeatmapLengths(oldFormat, new ArrayList<>(records.subList(0, 30))));
+            OsuDbDiff diff = diffs.poll(30, TimeUnit.SECONDS);
+            assertNotNull("should be notified of the first change", diff);
+            assertEquals(30, diff.getCurrent().getBeatmapCount());
+
+            Files.write(path, TestFiles.withBeatmapLengths(oldFormat, new ArrayList<>(records.subList(0, 20))));
+            diff = diffs.poll(30, TimeUnit.SECONDS);
+            assertNotNull("should still be notified after a listener threw", diff);
+            assertEquals(20, diff.getCurrent().getBeatmapCount());
+            assertSame(diff.getCurrent(), watcher.getCurrent());
+            assertEquals(2, thrown.get());
+        } finally {
+            Files.deleteIfExists(path);
+            Files.delete(dir);
+        }
+    }
+}
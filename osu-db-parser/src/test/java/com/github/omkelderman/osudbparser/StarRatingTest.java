@@ -1,11 +1,20 @@
 package com.github.omkelderman.osudbparser;
 
 import com.github.omkelderman.osudbparser.io.OsuDbInputStream;
+import com.github.omkelderman.osudbparser.io.OsuDbOutputStream;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 import static junit.framework.TestCase.assertNotNull;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class StarRatingTest {
 
@@ -101,4 +110,67 @@ public class StarRatingTest {
         starRating.forModArray(8, 6, 3); // HT + DT + HD
     }
 
-}
\ No newline at end of file
+    @Test(expected = IOException.class)
+    public void testParseCorrupted() throws Exception {
+        // one rating, but 0x0D marker is missing
+        byte[] bytes = ByteBuffer.allocate(4 + 14).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(1).put((byte) 0x08).putInt(0).put((byte) 0x42).putDouble(2.5).array();
+
+        StarRating.parse(new OsuDbInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void testForModsMissingCombo() throws Exception {
+        // only a rating for DT
+        byte[] bytes = ByteBuffer.allocate(4 + 14).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(1).put((byte) 0x08).putInt(64).put((byte) 0x0D).putDouble(2.5).array();
+        StarRating starRating = StarRating.parse(new OsuDbInputStream(new ByteArrayInputStream(bytes)));
+
+        assertNotNull(starRating);
+        assertEquals(2.5, starRating.forModArray(6), 0.0);
+        assertTrue(Double.isNaN(starRating.forNoMod()));
+        assertTrue(Double.isNaN(starRating.forModArray(4, 6)));
+    }
+
+    @Test
+    public void testComboIndex() throws Exception {
+        // same order as osu! writes them: nomod, DT, HT, EZ, EZ+DT, EZ+HT, HR, HR+DT, HR+HT
+        long[] combos = {0, 64, 256, 2, 2 | 64, 2 | 256, 16, 16 | 64, 16 | 256};
+        for (int i = 0; i < combos.length; ++i) {
+            assertEquals(i, StarRating.comboIndex(combos[i]));
+        }
+        assertEquals(StarRating.COMBO_COUNT, combos.length);
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        byte[] bytes = TestFiles.readResource("starRating1.db");
+
+        assertArrayEquals(bytes, write(StarRating.parse(new OsuDbInputStream(new ByteArrayInputStream(bytes)))));
+        assertArrayEquals(new byte[4], write(null));
+    }
+
+    @Test
+    public void testWriteFileOrder() throws Exception {
+        // HR before nomod and a rating that is not a combo, which must be written as they were read
+        byte[] bytes = ByteBuffer.allocate(4 + 3 * 14).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(3)
+                .put((byte) 0x08).putInt(16).put((byte) 0x0D).putDouble(2.9)
+                .put((byte) 0x08).putInt(0).put((byte) 0x0D).putDouble(2.5)
+                .put((byte) 0x08).putInt(8).put((byte) 0x0D).putDouble(2.6)
+                .array();
+        StarRating starRating = StarRating.parse(new OsuDbInputStream(new ByteArrayInputStream(bytes)));
+
+        assertNotNull(starRating);
+        assertEquals(2.9, starRating.forModArray(4), 0.0);
+        assertArrayEquals(bytes, write(starRating));
+    }
+
+    private static byte[] write(StarRating starRating) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OsuDbOutputStream oStream = new OsuDbOutputStream(out)) {
+            StarRating.write(starRating, oStream);
+        }
+        return out.toByteArray();
+    }
+}
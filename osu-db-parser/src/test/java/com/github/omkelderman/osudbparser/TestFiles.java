@@ -0,0 +1,175 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbByteBufferInput;
+import com.github.omkelderman.osudbparser.io.OsuDbOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Helpers shared by the tests: access to the test resources and a deep compare of parsed beatmaps.
+ */
+final class TestFiles {
+    /**
+     * First osu! version that prefixes every beatmap with its length in bytes
+     */
+    static final long BEATMAP_LENGTH_VERSION = 20160411;
+
+    private TestFiles() {
+    }
+
+    static Path resourcePath(String name) throws URISyntaxException {
+        return Paths.get(ClassLoader.getSystemResource(name).toURI());
+    }
+
+    static byte[] readResource(String name) throws IOException, URISyntaxException {
+        return Files.readAllBytes(resourcePath(name));
+    }
+
+    /**
+     * Convert an osu!.db file from before {@link #BEATMAP_LENGTH_VERSION} into the newer format, where every beatmap
+     * is prefixed with its length.
+     */
+    static byte[] withBeatmapLengths(byte[] oldFormat) throws IOException {
+        return withBeatmapLengths(oldFormat, beatmapRecords(oldFormat));
+    }
+
+    /**
+     * Build a file in the format since {@link #BEATMAP_LENGTH_VERSION}, with the header and trailing bytes of
+     * <code>oldFormat</code>, but with <code>records</code> as beatmaps.
+     *
+     * @param records The beatmaps, without length, see {@link #beatmapRecords(byte[])}
+     */
+    static byte[] withBeatmapLengths(byte[] oldFormat, List<byte[]> records) throws IOException {
+        OsuDbByteBufferInput input = headerInput(oldFormat);
+        int headerEnd = input.position();
+        long version = readUInt32(oldFormat, 0);
+        long beatmapCount = input.readUInt32();
+        for (long i = 0; i < beatmapCount; ++i) {
+            OsuBeatmapInfo.skip(input, version);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OsuDbOutputStream out = new OsuDbOutputStream(bytes)) {
+            out.writeUInt32(BEATMAP_LENGTH_VERSION);
+            out.write(oldFormat, 4, headerEnd - 4);
+            out.writeUInt32(records.size());
+            for (byte[] record : records) {
+                out.writeUInt32(record.length);
+                out.write(record);
+            }
+            out.write(oldFormat, input.position(), input.remaining());
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return The bytes of every beatmap in an osu!.db file from before {@link #BEATMAP_LENGTH_VERSION}
+     */
+    static List<byte[]> beatmapRecords(byte[] oldFormat) throws IOException {
+        OsuDbByteBufferInput input = headerInput(oldFormat);
+        long version = readUInt32(oldFormat, 0);
+        long beatmapCount = input.readUInt32();
+        List<byte[]> records = new ArrayList<>();
+        for (long i = 0; i < beatmapCount; ++i) {
+            int start = input.position();
+            OsuBeatmapInfo.skip(input, version);
+            records.add(Arrays.copyOfRange(oldFormat, start, input.position()));
+        }
+        return records;
+    }
+
+    // input positioned at the beatmap count
+    private static OsuDbByteBufferInput headerInput(byte[] file) throws IOException {
+        OsuDbByteBufferInput input = new OsuDbByteBufferInput(ByteBuffer.wrap(file));
+        input.readUInt32(); // version
+        input.readUInt32(); // folder count
+        input.readBoolean(); // account unlocked
+        input.skipFully(8); // date time
+        input.readString(); // player name
+        return input;
+    }
+
+    private static long readUInt32(byte[] bytes, int offset) throws IOException {
+        OsuDbByteBufferInput input = new OsuDbByteBufferInput(ByteBuffer.wrap(bytes));
+        input.skipFully(offset);
+        return input.readUInt32();
+    }
+
+    static Path writeTempFile(byte[] bytes) throws IOException {
+        Path path = Files.createTempFile("osu", ".db");
+        path.toFile().deleteOnExit();
+        Files.write(path, bytes);
+        return path;
+    }
+
+    static void assertBeatmapsEquals(OsuBeatmapInfo[] expected, OsuBeatmapInfo[] actual) throws Exception {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; ++i) {
+            assertBeatmapEquals(expected[i], actual[i]);
+        }
+    }
+
+    /**
+     * Compare every getter of both beatmaps, including the contents of the timing points and star ratings.
+     */
+    static void assertBeatmapEquals(OsuBeatmapInfo expected, OsuBeatmapInfo actual) throws Exception {
+        assertGettersEquals(expected, actual);
+    }
+
+    private static void assertGettersEquals(Object expected, Object actual) throws Exception {
+        for (Method method : expected.getClass().getMethods()) {
+            if (method.getParameterCount() != 0 || Modifier.isStatic(method.getModifiers())
+                    || method.getDeclaringClass() == Object.class
+                    || !(method.getName().startsWith("get") || method.getName().startsWith("is"))) {
+                continue;
+            }
+            assertValueEquals(method.getName(), method.invoke(expected), method.invoke(actual));
+        }
+    }
+
+    private static void assertValueEquals(String name, Object expected, Object actual) throws Exception {
+        if (expected == null || actual == null) {
+            assertEquals(name, expected, actual);
+        } else if (expected instanceof StarRating) {
+            assertStarRatingEquals(name, (StarRating) expected, (StarRating) actual);
+        } else if (expected instanceof Object[]) {
+            Object[] expectedArray = (Object[]) expected;
+            Object[] actualArray = (Object[]) actual;
+            assertEquals(name + ".length", expectedArray.length, actualArray.length);
+            for (int i = 0; i < expectedArray.length; ++i) {
+                assertValueEquals(name + "[" + i + "]", expectedArray[i], actualArray[i]);
+            }
+        } else if (expected instanceof TimingPointTable) {
+            assertValueEquals(name, ((TimingPointTable) expected).toArray(), ((TimingPointTable) actual).toArray());
+        } else if (expected instanceof TimingPointTimeline) {
+            // built from the timing points, which are compared already
+        } else if (expected instanceof TimingPoint) {
+            assertGettersEquals(expected, actual);
+        } else {
+            assertEquals(name, expected, actual);
+        }
+    }
+
+    private static void assertStarRatingEquals(String name, StarRating expected, StarRating actual) {
+        // the nine valid combinations of EZ, HR, HT and DT
+        for (int ezHr : new int[]{0, 1, 4}) {
+            for (int htDt : new int[]{0, 6, 8}) {
+                long mods = (ezHr == 0 ? 0 : 1L << ezHr) | (htDt == 0 ? 0 : 1L << htDt);
+                assertEquals(name + "(" + mods + ")", expected.forMods(mods), actual.forMods(mods), 0D);
+            }
+        }
+    }
+}
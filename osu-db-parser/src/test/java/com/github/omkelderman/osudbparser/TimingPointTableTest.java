@@ -0,0 +1,63 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbInputStream;
+import org.junit.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class TimingPointTableTest {
+
+    @Test
+    public void testParse() throws Exception {
+        TimingPoint[] expected = TimingPoint.parseArray(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("timingPointsMultiple.db")));
+        TimingPointTable table = TimingPointTable.parse(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("timingPointsMultiple.db")));
+
+        assertEquals(43, table.size());
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals(expected[i].getMsPerBeat(), table.getMsPerBeat(i), 0D);
+            assertEquals(expected[i].getOffset(), table.getOffset(i), 0D);
+            assertEquals(expected[i].getBpm(), table.getBpm(i), 0D);
+            assertEquals(expected[i].isInherited(), table.isInherited(i));
+            assertEquals(expected[i].getOffset(), table.get(i).getOffset(), 0D);
+        }
+        assertEquals(expected.length, table.toArray().length);
+
+        assertEquals(91.000, table.calcBpmMin(), 0.001);
+        assertEquals(182.000, table.calcBpmMax(), 0.001);
+        assertEquals(TimingPoint.calcMainBpm(expected, 209306), table.calcMainBpm(209306), 0D);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds() throws Exception {
+        TimingPointTable table = TimingPointTable.parse(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("timingPointsSingle.db")));
+        table.getOffset(1);
+    }
+
+    @Test
+    public void testBeatmap() throws Exception {
+        OsuDbFile file = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db"));
+        OsuDbTable columns = OsuDbTable.parse(ClassLoader.getSystemResourceAsStream("osu!.db"));
+
+        for (int row = 0; row < file.getBeatmaps().length; ++row) {
+            OsuBeatmapInfo beatmap = file.getBeatmaps()[row];
+            TimingPoint[] timingPoints = beatmap.getTimingPoints();
+            TimingPointTable table = beatmap.getTimingPointTable();
+            assertEquals(timingPoints.length, table.size());
+            assertEquals(timingPoints.length, columns.getTimingPointTable(row).size());
+            for (int i = 0; i < timingPoints.length; ++i) {
+                assertEquals(timingPoints[i].getBpm(), table.getBpm(i), 0D);
+                assertEquals(timingPoints[i].getOffset(), columns.getTimingPointTable(row).getOffset(i), 0D);
+            }
+            assertEquals(beatmap.getBpmMin(), table.calcBpmMin(), 0D);
+            assertEquals(beatmap.getBpmMax(), table.calcBpmMax(), 0D);
+        }
+    }
+
+    @Test
+    public void testNotParsed() throws Exception {
+        OsuDbFile file = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db"), EnumSet.of(OsuBeatmapInfo.Field.BEATMAP_ID));
+        assertNull(file.getBeatmaps()[0].getTimingPointTable());
+    }
+}
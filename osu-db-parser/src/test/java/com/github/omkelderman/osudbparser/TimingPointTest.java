@@ -0,0 +1,158 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbInputStream;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+public class TimingPointTest {
+
+    private void assertIsTheSingleTutorialTimingPoint(TimingPoint timingPoint) {
+        assertFalse("should be not inherited timing point", timingPoint.isInherited());
+        assertEquals(timingPoint.getOffset(), 243, 0.1);
+        assertEquals(timingPoint.getBpm(), 160.375, 0.001);
+        assertEquals(timingPoint.getMsPerBeat(), 60000 / 160.375, 0.001);
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        TimingPoint timingPoint = TimingPoint.parse(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("timingPoint.db")));
+        assertNotNull(timingPoint);
+
+        assertIsTheSingleTutorialTimingPoint(timingPoint);
+    }
+
+    @Test
+    public void testParseArraySingle() throws Exception {
+        TimingPoint[] timingPoints = TimingPoint.parseArray(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("timingPointsSingle.db")));
+        assertNotNull(timingPoints);
+
+        assertEquals(timingPoints.length, 1);
+        assertIsTheSingleTutorialTimingPoint(timingPoints[0]);
+
+        // all the calc-methods should provide the same bpm, since there is only one timing-point
+        assertEquals(TimingPoint.calcBpmMin(timingPoints), 160.375, 0.001);
+        assertEquals(TimingPoint.calcBpmMax(timingPoints), 160.375, 0.001);
+        // second arg (beatmapTotalTime) should be ignored when providing array of only 1
+        assertEquals(TimingPoint.calcMainBpm(timingPoints, 0), 160.375, 0.001);
+    }
+
+    @Test
+    public void testParseArrayMultiple() throws Exception {
+        TimingPoint[] timingPoints = TimingPoint.parseArray(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("timingPointsMultiple.db")));
+        assertNotNull(timingPoints);
+
+        assertEquals(timingPoints.length, 43);
+
+        // not gonna assert each individual timing-point, should be covered by other test methods
+
+        // but there values are interesting: (this is https://osu.ppy.sh/b/557815 btw)
+        assertEquals(TimingPoint.calcBpmMin(timingPoints), 91.000, 0.001);
+        assertEquals(TimingPoint.calcBpmMax(timingPoints), 182.000, 0.001);
+        assertEquals(TimingPoint.calcMainBpm(timingPoints, 209306), 182.000, 0.001);
+    }
+
+    @Test
+    public void testParseArrayEmpty() throws Exception {
+        TimingPoint[] timingPoints = new TimingPoint[0];
+
+        assertEquals(TimingPoint.calcBpmMin(timingPoints), 0, 0.001);
+        assertEquals(TimingPoint.calcBpmMax(timingPoints), 0, 0.001);
+        // second arg (beatmapTotalTime) should be ignored when providing array of 0 length
+        assertEquals(TimingPoint.calcMainBpm(timingPoints, 0), 0, 0.001);
+    }
+
+    @Test
+    public void testDecodeArray() throws Exception {
+        TimingPoint[] expected = TimingPoint.parseArray(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("timingPointsMultiple.db")));
+        byte[] bytes = TimingPoint.readEncodedArray(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("timingPointsMultiple.db")));
+
+        assertEquals(43 * 17, bytes.length);
+        TimingPoint[] timingPoints = TimingPoint.decodeArray(bytes);
+        assertEquals(expected.length, timingPoints.length);
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals(expected[i].getMsPerBeat(), timingPoints[i].getMsPerBeat(), 0D);
+            assertEquals(expected[i].getOffset(), timingPoints[i].getOffset(), 0D);
+            assertEquals(expected[i].getBpm(), timingPoints[i].getBpm(), 0D);
+            assertEquals(expected[i].isInherited(), timingPoints[i].isInherited());
+        }
+    }
+
+    @Test
+    public void testCalcMainBpmTie() throws Exception {
+        // 120 bpm for 1000ms, 200 bpm for 1000ms, 120 bpm for 1000ms, 200 bpm for 1000ms: the first one wins
+        TimingPoint[] timingPoints = TimingPoint.decodeArray(encode(
+                120, 0, false,
+                200, 1000, false,
+                200, 1500, true,
+                120, 2000, false,
+                200, 3000, false));
+        assertEquals(120, TimingPoint.calcMainBpm(timingPoints, 4000), 0.001);
+
+        timingPoints = TimingPoint.decodeArray(encode(
+                200, 0, false,
+                120, 1000, false,
+                200, 2000, false));
+        assertEquals(200, TimingPoint.calcMainBpm(timingPoints, 2500), 0.001);
+        assertEquals(120, TimingPoint.calcMainBpm(timingPoints, 1500), 0.001);
+    }
+
+    @Test
+    public void testCalcMainBpmManyBpms() throws Exception {
+        // more different bpms than fit in the arrays of BpmStatistics, so the last ones are summed in a map
+        Object[] values = new Object[100 * 3];
+        for (int i = 0; i < 100; ++i) {
+            values[i * 3] = 100 + (i % 50);
+            values[i * 3 + 1] = i * 1000 + (i == 73 ? -500 : 0);
+            values[i * 3 + 2] = false;
+        }
+        byte[] bytes = encode(values);
+        // point 73 (123 bpm) starts 500ms early, point 72 (122 bpm) ends 500ms early
+        assertEquals(123, TimingPoint.calcMainBpm(TimingPoint.decodeArray(bytes), 100000), 0.001);
+        TimingPointTable table = new TimingPointTable(bytes);
+        assertEquals(123, table.calcMainBpm(100000), 0.001);
+        assertEquals(100, table.calcBpmMin(), 0.001);
+        assertEquals(149, table.calcBpmMax(), 0.001);
+    }
+
+    @Test
+    public void testCalcMainBpmSpilledBpm() throws Exception {
+        // 40 different bpms of 1000ms each, the 36th (so one of the bpms that don't fit in the arrays) comes back later
+        // for another 500ms
+        Object[] values = new Object[41 * 3];
+        for (int i = 0; i < 40; ++i) {
+            values[i * 3] = 100 + i;
+            values[i * 3 + 1] = i * 1000;
+            values[i * 3 + 2] = false;
+        }
+        values[40 * 3] = 135;
+        values[40 * 3 + 1] = 40000;
+        values[40 * 3 + 2] = false;
+        byte[] bytes = encode(values);
+
+        TimingPoint.BpmStatistics statistics = TimingPoint.bpmStatistics(TimingPoint.TABLE, new TimingPointTable(bytes), 40500);
+        assertEquals(135, statistics.getMainBpm(), 0.001);
+        assertEquals(100, statistics.getBpmMin(), 0.001);
+        assertEquals(139, statistics.getBpmMax(), 0.001);
+        assertEquals(135, TimingPoint.calcMainBpm(TimingPoint.decodeArray(bytes), 40500), 0.001);
+
+        // a tie between a bpm in the arrays and one in the map: the one that comes first wins
+        assertEquals(100, TimingPoint.calcMainBpm(TimingPoint.decodeArray(bytes), 40000), 0.001);
+    }
+
+    /**
+     * @param values bpm, offset, inherited, for every timing point
+     */
+    private static byte[] encode(Object... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length / 3 * 17).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < values.length; i += 3) {
+            buffer.putDouble(60000D / ((Number) values[i]).doubleValue());
+            buffer.putDouble(((Number) values[i + 1]).doubleValue());
+            buffer.put((byte) ((Boolean) values[i + 2] ? 0 : 1));
+        }
+        return buffer.array();
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.omkelderman.osudbparser;
+
+import com.github.omkelderman.osudbparser.io.OsuDbInputStream;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+public class TimingPointTimelineTest {
+
+    @Test
+    public void testLookups() throws Exception {
+        TimingPointTimeline timeline = TimingPointTimeline.build(table(
+                500, 1000, false,   // 0: 120 bpm
+                -50, 2000, true,    // 1
+                250, 3000, false,   // 2: 240 bpm
+                -100, 3000, true,   // 3
+                -200, 4000, true,   // 4
+                1000, 5000, false)); // 5: 60 bpm
+
+        assertEquals(0, timeline.uninheritedAt(0));
+        assertEquals(0, timeline.uninheritedAt(2999.9));
+        assertEquals(2, timeline.uninheritedAt(3000));
+        assertEquals(5, timeline.uninheritedAt(100000));
+
+        assertEquals(-1, timeline.inheritedAt(0));
+        assertEquals(-1, timeline.inheritedAt(1500));
+        assertEquals(1, timeline.inheritedAt(2000));
+        assertEquals(1, timeline.inheritedAt(2999));
+        assertEquals(3, timeline.inheritedAt(3000));
+        assertEquals(4, timeline.inheritedAt(4999));
+        assertEquals(-1, timeline.inheritedAt(5000));
+
+        assertEquals(120, timeline.bpmAt(0), 0.001);
+        assertEquals(240, timeline.bpmAt(3500), 0.001);
+        assertEquals(60, timeline.bpmAt(6000), 0.001);
+
+        // 4 beats of 500ms, 8 beats of 250ms, then 1000ms per beat
+        assertEquals(-2, timeline.beatAt(0), 0.001);
+        assertEquals(0, timeline.beatAt(1000), 0.001);
+        assertEquals(4, timeline.beatAt(3000), 0.001);
+        assertEquals(6.5, timeline.beatAt(3625), 0.001);
+        assertEquals(12, timeline.beatAt(5000), 0.001);
+        assertEquals(13.5, timeline.beatAt(6500), 0.001);
+    }
+
+    @Test
+    public void testUnsorted() throws Exception {
+        TimingPointTimeline timeline = TimingPointTimeline.build(table(
+                250, 3000, false,
+                -50, 2000, true,
+                500, 1000, false));
+
+        assertEquals(2, timeline.uninheritedAt(2500));
+        assertEquals(1, timeline.inheritedAt(2500));
+        assertEquals(0, timeline.uninheritedAt(3500));
+        assertEquals(6, timeline.beatAt(3500), 0.001);
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        TimingPointTimeline timeline = TimingPointTimeline.build(new TimingPoint[0]);
+
+        assertEquals(-1, timeline.uninheritedAt(1000));
+        assertEquals(-1, timeline.inheritedAt(1000));
+        assertEquals(0, timeline.bpmAt(1000), 0D);
+        assertEquals(0, timeline.beatAt(1000), 0D);
+    }
+
+    @Test
+    public void testSameAsLinearScan() throws Exception {
+        TimingPoint[] timingPoints = TimingPoint.parseArray(new OsuDbInputStream(ClassLoader.getSystemResourceAsStream("timingPointsMultiple.db")));
+        TimingPointTimeline timeline = TimingPointTimeline.build(timingPoints);
+
+        for (double time = 0; time < 209306; time += 97.5) {
+            int uninherited = -1;
+            int inherited = -1;
+            for (int i = 0; i < timingPoints.length && timingPoints[i].getOffset() <= time; ++i) {
+                if (timingPoints[i].isInherited()) {
+                    inherited = i;
+                } else {
+                    uninherited = i;
+                    inherited = -1;
+                }
+            }
+            if (uninherited < 0) {
+                uninherited = 0;
+            }
+            assertEquals(uninherited, timeline.uninheritedAt(time));
+            assertEquals(inherited, timeline.inheritedAt(time));
+            assertEquals(timingPoints[uninherited].getBpm(), timeline.bpmAt(time), 0D);
+        }
+    }
+
+    @Test
+    public void testBeatmap() throws Exception {
+        OsuBeatmapInfo beatmap = OsuDbFile.parse(ClassLoader.getSystemResourceAsStream("osu!.db")).getBeatmaps()[0];
+        TimingPointTimeline timeline = beatmap.getTimingPointTimeline();
+        TimingPoint[] timingPoints = beatmap.getTimingPoints();
+
+        int first = timeline.uninheritedAt(0);
+        assertFalse(timingPoints[first].isInherited());
+        assertEquals(timingPoints[first].getBpm(), timeline.bpmAt(0), 0D);
+    }
+
+    /**
+     * @param values msPerBeat, offset, inherited, for every timing point
+     */
+    private static TimingPointTable table(Object... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length / 3 * 17).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < values.length; i += 3) {
+            buffer.putDouble(((Number) values[i]).doubleValue());
+            buffer.putDouble(((Number) values[i + 1]).doubleValue());
+            buffer.put((byte) ((Boolean) values[i + 2] ? 0 : 1));
+        }
+        return new TimingPointTable(buffer.array());
+    }
+}
@@ -0,0 +1,256 @@
+package com.github.omkelderman.osudbparser.io;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+public class OsuDbByteBufferInputTest {
+
+    private static OsuDbByteBufferInput buildInput(int... bytes) {
+        byte[] realBytes = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; ++i) {
+            realBytes[i] = (byte) bytes[i];
+        }
+        return new OsuDbByteBufferInput(ByteBuffer.wrap(realBytes));
+    }
+
+    @Test(expected = EOFException.class)
+    public void testReadFullyToShort() throws Exception {
+        OsuDbByteBufferInput input = buildInput(0, 1); // only two bytes
+
+        // should throw IOException
+        input.readFully(new byte[4]);
+    }
+
+    @Test
+    public void testReadFully() throws Exception {
+        OsuDbByteBufferInput input = buildInput(0, 1, 2, 3);
+        byte[] bytesToRead = new byte[4];
+        input.readFully(bytesToRead);
+
+        assertArrayEquals(new byte[]{0, 1, 2, 3}, bytesToRead);
+    }
+
+    @Test
+    public void testSkipFully() throws Exception {
+        OsuDbByteBufferInput input = buildInput(1, 2, 3, 4, 5, 6);
+
+        input.skipFully(3);
+
+        assertEquals("should be 3 left, since we skipped 3", 3, input.remaining());
+        assertEquals(3, input.position());
+    }
+
+    @Test(expected = IOException.class)
+    public void testSkipFullyToMuch() throws Exception {
+        buildInput(1, 2).skipFully(3);
+    }
+
+    @Test
+    public void testDoesNotModifySuppliedBuffer() throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{1, 2, 3, 4});
+        buffer.position(1);
+        OsuDbByteBufferInput input = new OsuDbByteBufferInput(buffer);
+
+        assertEquals(2, input.readUInt8());
+        assertEquals(1, buffer.position());
+        assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadExpectedUInt8Fail() throws Exception {
+        buildInput(0x42).readExpectedUInt8(0x69);
+    }
+
+    @Test
+    public void testReadBoolean() throws Exception {
+        OsuDbByteBufferInput input = buildInput(0, 1);
+
+        assertFalse(input.readBoolean());
+        assertTrue(input.readBoolean());
+    }
+
+    @Test
+    public void testReadUInt16() throws Exception {
+        assertEquals(0x42 + 0x0300, buildInput(0x42, 0x03).readUInt16());
+        assertEquals(0xFFFF, buildInput(0xFF, 0xFF).readUInt16());
+    }
+
+    @Test
+    public void testReadUInt32() throws Exception {
+        assertEquals(0x01 + 0x0200 + 0x030000 + 0x04000000, buildInput(0x01, 0x02, 0x03, 0x04).readUInt32());
+        assertEquals(0xFFFFFFFFL, buildInput(0xFF, 0xFF, 0xFF, 0xFF).readUInt32());
+    }
+
+    @Test
+    public void testReadUInt64() throws Exception {
+        long expectedLong = 0x08 + 0x0700 + 0x060000 + 0x05000000 + 0x0400000000L + 0x030000000000L + 0x02000000000000L + 0x0100000000000000L;
+
+        assertEquals(expectedLong, buildInput(0x08, 0x07, 0x06, 0x05, 0x04, 0x03, 0x02, 0x01).readUInt64());
+    }
+
+    @Test(expected = EOFException.class)
+    public void testReadUInt32ToShort() throws Exception {
+        buildInput(0x01, 0x02, 0x03).readUInt32();
+    }
+
+    @Test
+    public void testReadFloatAndDouble() throws Exception {
+        float f = 3.1415926535F; // PI :D
+        double d = 2.718281828459045D;
+        byte[] bytes = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN).putFloat(f).putDouble(d).array();
+        OsuDbByteBufferInput input = new OsuDbByteBufferInput(ByteBuffer.wrap(bytes));
+
+        assertEquals(f, input.readFloat(), 0.0000000001);
+        assertEquals(d, input.readDouble(), 0.0000000001);
+    }
+
+    @Test
+    public void testReadULEB128asIntMax() throws Exception {
+        assertEquals(Integer.MAX_VALUE, buildInput(0xFF, 0xFF, 0xFF, 0xFF, 0x07).readULEB128asInt());
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadStringNegativeLength() throws Exception {
+        buildInput(0x0B, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F).readString();
+    }
+
+    @Test(expected = IOException.class)
+    public void testSkipStringNegativeLength() throws Exception {
+        buildInput(0x0B, 0x80, 0x80, 0x80, 0x80, 0x08).skipString();
+    }
+
+    @Test(expected = IOException.class)
+    public void testSubInputNegativeLength() throws Exception {
+        buildInput(0x00).subInput(-1);
+    }
+
+    @Test
+    public void testReadULEB128asInt() throws Exception {
+        // sample from https://en.wikipedia.org/wiki/LEB128
+        assertEquals(624485, buildInput(0xE5, 0x8E, 0x26).readULEB128asInt());
+    }
+
+    @Test
+    public void testReadStringNullAndEmpty() throws Exception {
+        OsuDbByteBufferInput input = buildInput(0x00, 0x0B, 0x00);
+
+        assertNull(input.readString());
+        assertEquals("", input.readString());
+    }
+
+    @Test
+    public void testReadStringDirectBuffer() throws Exception {
+        String str = "Hello Wörld!";
+        byte[] strBytes = str.getBytes("UTF-8");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(strBytes.length + 2);
+        buffer.put((byte) 0x0B).put((byte) strBytes.length).put(strBytes).flip();
+
+        assertEquals(str, new OsuDbByteBufferInput(buffer).readString());
+    }
+
+    @Test
+    public void testSubInput() throws Exception {
+        OsuDbByteBufferInput input = buildInput(1, 2, 3, 4, 5);
+
+        try (OsuDbDataInput subInput = input.subInput(3)) {
+            assertEquals(1, subInput.readUInt8());
+            try {
+                subInput.readUInt32();
+                fail("should not be able to read past the sub-section");
+            } catch (EOFException e) {
+                // expected
+            }
+        }
+
+        assertEquals(4, input.readUInt8());
+    }
+
+    @Test
+    public void testSubInputReused() throws Exception {
+        OsuDbByteBufferInput input = buildInput(1, 2, 3, 4, 5, 6);
+
+        OsuDbDataInput first = input.subInput(2);
+        assertEquals(2, input.remaining());
+        first.close();
+        try (OsuDbDataInput subInput = input.subInput(3)) {
+            assertSame(first, subInput);
+            assertEquals(3, subInput.readUInt8());
+        }
+
+        assertEquals(6, input.readUInt8());
+        assertEquals(0, input.remaining());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubInputNested() throws Exception {
+        OsuDbByteBufferInput input = buildInput(1, 2, 3, 4, 5);
+
+        try (OsuDbDataInput subInput = input.subInput(3)) {
+            subInput.subInput(1);
+        }
+    }
+
+    @Test
+    public void testSkipString() throws Exception {
+        OsuDbByteBufferInput input = buildInput(0x00, 0x0B, 0x00, 0x0B, 0x03, 'a', 'b', 'c', 0x42);
+
+        input.skipString(); // null
+        input.skipString(); // empty
+        input.skipString(); // abc
+
+        assertEquals(0x42, input.readUInt8());
+    }
+
+    @Test
+    public void testReadStringReusesBuffer() throws Exception {
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 50; ++i) {
+            longString.append("tags ");
+        }
+        String[] strings = {"0123456789abcdef0123456789abcdef", longString.toString(), "Wörld", "ab", "ñ", longString + "ü"};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OsuDbOutputStream out = new OsuDbOutputStream(bytes)) {
+            for (String string : strings) {
+                out.writeString(string);
+            }
+        }
+
+        OsuDbByteBufferInput input = new OsuDbByteBufferInput(ByteBuffer.wrap(bytes.toByteArray()));
+        for (String string : strings) {
+            assertEquals(string, input.readString());
+        }
+    }
+
+    @Test
+    public void testReadStringDirectBufferReusesBuffer() throws Exception {
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 50; ++i) {
+            longString.append("tags ");
+        }
+        String[] strings = {"0123456789abcdef0123456789abcdef", longString.toString(), "Wörld", "ab", "ñ", longString + "ü"};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OsuDbOutputStream out = new OsuDbOutputStream(bytes)) {
+            for (String string : strings) {
+                out.writeString(string);
+            }
+        }
+
+        OsuDbByteBufferInput input = new OsuDbByteBufferInput(directBuffer(bytes.toByteArray()));
+        for (String string : strings) {
+            assertEquals(string, input.readString());
+        }
+    }
+
+    private static ByteBuffer directBuffer(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer;
+    }
+}
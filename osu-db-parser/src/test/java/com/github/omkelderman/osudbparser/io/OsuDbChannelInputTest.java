@@ -0,0 +1,216 @@
+package com.github.omkelderman.osudbparser.io;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class OsuDbChannelInputTest {
+
+    private static OsuDbChannelInput buildInput(int... bytes) {
+        byte[] realBytes = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; ++i) {
+            realBytes[i] = (byte) bytes[i];
+        }
+        return buildInput(realBytes, OsuDbChannelInput.DEFAULT_BUFFER_SIZE);
+    }
+
+    private static OsuDbChannelInput buildInput(byte[] bytes, int bufferSize) {
+        return new OsuDbChannelInput(Channels.newChannel(new ByteArrayInputStream(bytes)), bufferSize);
+    }
+
+    @Test(expected = EOFException.class)
+    public void testReadFullyToShort() throws Exception {
+        OsuDbChannelInput input = buildInput(0, 1); // only two bytes
+
+        // should throw IOException
+        input.readFully(new byte[4]);
+    }
+
+    @Test
+    public void testReadFully() throws Exception {
+        OsuDbChannelInput input = buildInput(new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10}, 8);
+        byte[] bytesToRead = new byte[10];
+        input.readUInt8();
+        input.readFully(bytesToRead);
+
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}, bytesToRead);
+        assertEquals(11, input.position());
+    }
+
+    @Test
+    public void testSkipFully() throws Exception {
+        OsuDbChannelInput input = buildInput(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12}, 8);
+
+        input.readUInt8();
+        input.skipFully(9);
+
+        assertEquals(10, input.position());
+        assertEquals(11, input.readUInt8());
+    }
+
+    @Test
+    public void testSkipFullySeekable() throws Exception {
+        Path path = Files.createTempFile("osuDbChannelInput", ".db");
+        path.toFile().deleteOnExit();
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+
+        try (OsuDbChannelInput input = new OsuDbChannelInput(FileChannel.open(path), 8)) {
+            input.readUInt8();
+            input.skipFully(9);
+
+            assertEquals(10, input.position());
+            assertEquals(11, input.readUInt8());
+            try {
+                input.skipFully(2);
+                fail("should not be able to skip past the end");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testSkipFullyToMuch() throws Exception {
+        buildInput(1, 2).skipFully(3);
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadExpectedUInt8Fail() throws Exception {
+        buildInput(0x42).readExpectedUInt8(0x69);
+    }
+
+    @Test
+    public void testReadBoolean() throws Exception {
+        OsuDbChannelInput input = buildInput(0, 1);
+
+        assertFalse(input.readBoolean());
+        assertTrue(input.readBoolean());
+    }
+
+    @Test
+    public void testReadNumbersAcrossBuffer() throws Exception {
+        float f = 3.1415926535F; // PI :D
+        double d = 2.718281828459045D;
+        byte[] bytes = ByteBuffer.allocate(1 + 2 + 4 + 8 + 4 + 8).order(ByteOrder.LITTLE_ENDIAN)
+                .put((byte) 0xFF).putShort((short) 0xFFFF).putInt(0xFFFFFFFF).putLong(0x0102030405060708L)
+                .putFloat(f).putDouble(d).array();
+        OsuDbChannelInput input = buildInput(bytes, 8);
+
+        assertEquals(0xFF, input.readUInt8());
+        assertEquals(0xFFFF, input.readUInt16());
+        assertEquals(0xFFFFFFFFL, input.readUInt32());
+        assertEquals(0x0102030405060708L, input.readUInt64());
+        assertEquals(f, input.readFloat(), 0.0000000001);
+        assertEquals(d, input.readDouble(), 0.0000000001);
+    }
+
+    @Test(expected = EOFException.class)
+    public void testReadUInt32ToShort() throws Exception {
+        buildInput(0x01, 0x02, 0x03).readUInt32();
+    }
+
+    @Test
+    public void testReadULEB128asIntMax() throws Exception {
+        assertEquals(Integer.MAX_VALUE, buildInput(0xFF, 0xFF, 0xFF, 0xFF, 0x07).readULEB128asInt());
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadStringNegativeLength() throws Exception {
+        buildInput(0x0B, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F).readString();
+    }
+
+    @Test(expected = IOException.class)
+    public void testSkipStringNegativeLength() throws Exception {
+        buildInput(0x0B, 0x80, 0x80, 0x80, 0x80, 0x08).skipString();
+    }
+
+    @Test(expected = IOException.class)
+    public void testSubInputNegativeLength() throws Exception {
+        buildInput(0x00).subInput(-1);
+    }
+
+    @Test
+    public void testReadULEB128asInt() throws Exception {
+        // sample from https://en.wikipedia.org/wiki/LEB128
+        assertEquals(624485, buildInput(0xE5, 0x8E, 0x26).readULEB128asInt());
+    }
+
+    @Test
+    public void testReadString() throws Exception {
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 50; ++i) {
+            longString.append("tags ");
+        }
+        String[] strings = {null, "", "0123456789abcdef", longString.toString(), "Wörld", "ab", "ñ", longString + "ü"};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OsuDbOutputStream out = new OsuDbOutputStream(bytes)) {
+            for (String string : strings) {
+                out.writeString(string);
+            }
+        }
+
+        // strings that fit in the buffer and ones that don't
+        OsuDbChannelInput input = buildInput(bytes.toByteArray(), 32);
+        input.setStringPool(new StringPool(16));
+        for (String string : strings) {
+            assertEquals(string, input.readString());
+        }
+        assertEquals(bytes.size(), input.position());
+    }
+
+    @Test
+    public void testSkipString() throws Exception {
+        OsuDbChannelInput input = buildInput(0x00, 0x0B, 0x00, 0x0B, 0x03, 'a', 'b', 'c', 0x42);
+
+        input.skipString(); // null
+        input.skipString(); // empty
+        input.skipString(); // abc
+
+        assertEquals(0x42, input.readUInt8());
+    }
+
+    @Test
+    public void testSubInput() throws Exception {
+        OsuDbChannelInput input = buildInput(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12}, 8);
+
+        OsuDbDataInput first;
+        try (OsuDbDataInput subInput = input.subInput(3)) {
+            first = subInput;
+            assertEquals(1, subInput.readUInt8());
+            try {
+                subInput.readUInt32();
+                fail("should not be able to read past the sub-section");
+            } catch (EOFException e) {
+                // expected
+            }
+        }
+        assertEquals(4, input.readUInt8());
+
+        try (OsuDbDataInput subInput = input.subInput(6)) {
+            // no allocation per sub-section
+            assertSame(first, subInput);
+            assertEquals(5, subInput.readUInt8());
+        }
+        assertEquals(11, input.readUInt8());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubInputNested() throws Exception {
+        OsuDbChannelInput input = buildInput(1, 2, 3, 4, 5);
+
+        try (OsuDbDataInput subInput = input.subInput(3)) {
+            subInput.subInput(1);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.github.omkelderman.osudbparser.io;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -10,6 +11,8 @@ import java.nio.ByteOrder;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 public class OsuDbInputStreamTest {
 
@@ -163,6 +166,26 @@ public class OsuDbInputStreamTest {
         assertEquals(d, resultD, 0.0000000001);
     }
 
+    @Test
+    public void testReadULEB128asIntMax() throws Exception {
+        assertEquals(Integer.MAX_VALUE, new OsuDbInputStream(buildInputStream(0xFF, 0xFF, 0xFF, 0xFF, 0x07)).readULEB128asInt());
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadStringNegativeLength() throws Exception {
+        new OsuDbInputStream(buildInputStream(0x0B, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F)).readString();
+    }
+
+    @Test(expected = IOException.class)
+    public void testSkipStringNegativeLength() throws Exception {
+        new OsuDbInputStream(buildInputStream(0x0B, 0x80, 0x80, 0x80, 0x80, 0x08)).skipString();
+    }
+
+    @Test(expected = IOException.class)
+    public void testSubInputNegativeLength() throws Exception {
+        new OsuDbInputStream(buildInputStream(0x00)).subInput(-1);
+    }
+
     @Test
     public void testReadULEB128asInt() throws Exception {
         // sample from https://en.wikipedia.org/wiki/LEB128
@@ -216,4 +239,79 @@ public class OsuDbInputStreamTest {
         String result = osuDbInputStream.readString();
         assertEquals(helloWorld, result);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSkipString() throws Exception {
+        ByteArrayInputStream bais = buildInputStream(0x00, 0x0B, 0x00, 0x0B, 0x03, 'a', 'b', 'c', 0x42);
+        OsuDbInputStream osuDbInputStream = new OsuDbInputStream(bais);
+
+        osuDbInputStream.skipString(); // null
+        osuDbInputStream.skipString(); // empty
+        osuDbInputStream.skipString(); // abc
+
+        assertEquals(0x42, osuDbInputStream.readUInt8());
+    }
+
+    @Test
+    public void testReadStringReusesBuffer() throws Exception {
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 50; ++i) {
+            longString.append("tags ");
+        }
+        String[] strings = {"0123456789abcdef0123456789abcdef", longString.toString(), "Wörld", "ab", "ñ", longString + "ü"};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OsuDbOutputStream out = new OsuDbOutputStream(bytes)) {
+            for (String string : strings) {
+                out.writeString(string);
+            }
+        }
+
+        OsuDbInputStream input = new OsuDbInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (String string : strings) {
+            assertEquals(string, input.readString());
+        }
+    }
+
+    @Test
+    public void testSubInput() throws Exception {
+        OsuDbInputStream osuDbInputStream = new OsuDbInputStream(buildInputStream(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12));
+
+        OsuDbDataInput first;
+        try (OsuDbDataInput subInput = osuDbInputStream.subInput(3)) {
+            first = subInput;
+            assertEquals(1, subInput.readUInt8());
+            try {
+                subInput.readUInt32();
+                fail("should not be able to read past the sub-section");
+            } catch (EOFException e) {
+                // expected
+            }
+        }
+        assertEquals(4, osuDbInputStream.readUInt8());
+
+        try (OsuDbDataInput subInput = osuDbInputStream.subInput(6)) {
+            // no allocation per sub-section
+            assertSame(first, subInput);
+            byte[] bytes = new byte[2];
+            subInput.readFully(bytes);
+            assertArrayEquals(new byte[]{5, 6}, bytes);
+            subInput.skipFully(1);
+            try {
+                subInput.skipFully(4);
+                fail("should not be able to skip past the sub-section");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+        assertEquals(11, osuDbInputStream.readUInt8());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubInputNested() throws Exception {
+        OsuDbInputStream osuDbInputStream = new OsuDbInputStream(buildInputStream(1, 2, 3, 4, 5));
+
+        try (OsuDbDataInput subInput = osuDbInputStream.subInput(3)) {
+            subInput.subInput(1);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.omkelderman.osudbparser.io;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class StringPoolTest {
+
+    @Test
+    public void testSameBytesGiveSameInstance() {
+        StringPool pool = new StringPool();
+        byte[] first = "xxHello Wörld!".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "Hello Wörld!".getBytes(StandardCharsets.UTF_8);
+
+        String string = pool.get(first, 2, first.length - 2);
+        assertEquals("Hello Wörld!", string);
+        assertSame(string, pool.get(second, 0, second.length));
+    }
+
+    @Test
+    public void testDifferentBytes() {
+        StringPool pool = new StringPool();
+        byte[] bytes = "abcabd".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals("abc", pool.get(bytes, 0, 3));
+        assertEquals("abd", pool.get(bytes, 3, 3));
+        assertEquals("ab", pool.get(bytes, 0, 2));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals("", new StringPool().get(new byte[0], 0, 0));
+    }
+
+    @Test
+    public void testBoundedPoolStillDecodesCorrectly() {
+        StringPool pool = new StringPool(1);
+        byte[] a = "a".getBytes(StandardCharsets.UTF_8);
+        byte[] b = "b".getBytes(StandardCharsets.UTF_8);
+
+        for (int i = 0; i < 3; ++i) {
+            assertEquals("a", pool.get(a, 0, 1));
+            assertEquals("b", pool.get(b, 0, 1));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new StringPool(0);
+    }
+
+    @Test
+    public void testReadPooledString() throws Exception {
+        byte[] bytes = {0x0B, 0x03, 'a', 'b', 'c', 0x0B, 0x03, 'a', 'b', 'c', 0x00};
+        OsuDbByteBufferInput input = new OsuDbByteBufferInput(ByteBuffer.wrap(bytes));
+        input.setStringPool(new StringPool());
+
+        String first = input.readPooledString();
+        assertSame(first, input.readPooledString());
+        assertNull(input.readPooledString());
+    }
+
+    @Test
+    public void testReadPooledStringWithoutPool() throws Exception {
+        byte[] bytes = {0x0B, 0x03, 'a', 'b', 'c', 0x0B, 0x03, 'a', 'b', 'c'};
+        OsuDbInputStream input = new OsuDbInputStream(new ByteArrayInputStream(bytes));
+
+        String first = input.readPooledString();
+        String second = input.readPooledString();
+        assertEquals(first, second);
+        assertNotSame(first, second);
+    }
+}